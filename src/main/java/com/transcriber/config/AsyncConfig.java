@@ -7,8 +7,6 @@ import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
-import java.util.concurrent.Executor;
-
 @Configuration
 @EnableAsync
 public class AsyncConfig {
@@ -16,12 +14,17 @@ public class AsyncConfig {
     @Value("${meeting.max-concurrent-meetings:10}")
     private int maxConcurrentMeetings;
 
+    /**
+     * One thread per running meeting. How many meetings run is decided by AdmissionControlService
+     * (host headroom, capped at max-concurrent-meetings); the small queue only absorbs the moment
+     * between a finished meeting releasing its slot and its thread becoming free.
+     */
     @Bean(name = "meetingTaskExecutor")
-    public Executor meetingTaskExecutor() {
+    public ThreadPoolTaskExecutor meetingTaskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(maxConcurrentMeetings);
-        executor.setMaxPoolSize(maxConcurrentMeetings * 2);
-        executor.setQueueCapacity(100);
+        executor.setMaxPoolSize(maxConcurrentMeetings);
+        executor.setQueueCapacity(maxConcurrentMeetings);
         executor.setThreadNamePrefix("meeting-");
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(60);
@@ -4,7 +4,19 @@ import com.transcriber.model.ApiResponse;
 import com.transcriber.model.CallbackPayload;
 import com.transcriber.model.MeetingRequest;
 import com.transcriber.model.MeetingSession;
+import com.transcriber.service.AdmissionControlService;
+import com.transcriber.service.BrowserPoolService;
+import com.transcriber.service.DiagnosticsCaptureService;
+import com.transcriber.service.JoinStrategyCache;
+import com.transcriber.service.LaunchBenchmarkService;
 import com.transcriber.service.MeetingSchedulerService;
+import com.transcriber.service.PageWatchdog;
+import com.transcriber.service.PlaywrightDriverCache;
+import com.transcriber.service.ProcessRegistry;
+import com.transcriber.service.ResourceSampler;
+import com.transcriber.service.SelectorRegistryService;
+import com.transcriber.service.StorageStateCache;
+import com.transcriber.service.WorkerProcessService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,6 +25,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
@@ -22,6 +35,18 @@ import java.util.Map;
 public class MeetingController {
 
     private final MeetingSchedulerService schedulerService;
+    private final BrowserPoolService browserPoolService;
+    private final PlaywrightDriverCache driverCache;
+    private final StorageStateCache storageStateCache;
+    private final WorkerProcessService workerProcessService;
+    private final ProcessRegistry processRegistry;
+    private final PageWatchdog pageWatchdog;
+    private final JoinStrategyCache joinStrategyCache;
+    private final SelectorRegistryService selectorRegistryService;
+    private final AdmissionControlService admissionControlService;
+    private final ResourceSampler resourceSampler;
+    private final LaunchBenchmarkService launchBenchmarkService;
+    private final DiagnosticsCaptureService diagnosticsCaptureService;
 
     /**
      * Schedule a new meeting transcription
@@ -39,6 +64,11 @@ public class MeetingController {
 
         try {
             MeetingSession session = schedulerService.scheduleMeeting(request);
+            if (session.getStatus() == MeetingSession.MeetingStatus.REJECTED) {
+                log.warn("[{}] {}", session.getUuid(), session.getErrorMessage());
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body(ApiResponse.error(session.getErrorMessage()));
+            }
             
             Map<String, Object> data = new HashMap<>();
             data.put("uuid", session.getUuid());
@@ -78,6 +108,23 @@ public class MeetingController {
         return ResponseEntity.ok(ApiResponse.success("Meeting found", session));
     }
 
+    /**
+     * Resource time series of a running meeting (CPU, RSS, JS heap, DOM nodes) with its peaks
+     */
+    @GetMapping("/meeting/{uuid}/resources")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getMeetingResources(@PathVariable String uuid) {
+        MeetingSession session = schedulerService.getMeetingStatus(uuid);
+
+        if (session == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("Meeting not found: " + uuid));
+        }
+
+        Map<String, Object> data = resourceSampler.summarize(session);
+        data.put("timeSeries", session.getResourceSamples());
+        return ResponseEntity.ok(ApiResponse.success("Meeting resources", data));
+    }
+
     /**
      * Cancel a scheduled meeting
      */
@@ -126,4 +173,66 @@ public class MeetingController {
         
         return ResponseEntity.ok(ApiResponse.success("Service is healthy", health));
     }
+
+    /**
+     * Capacity metrics for node sizing
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> metrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("activeMeetings", schedulerService.getActiveMeetingCount());
+        metrics.put("admissionControl", admissionControlService.getStats());
+        Map<String, Object> meetingResources = new HashMap<>();
+        schedulerService.getActiveSessions().forEach(session ->
+                meetingResources.put(session.getUuid(), resourceSampler.summarize(session)));
+        metrics.put("meetingResources", meetingResources);
+        metrics.put("rendererCpu", resourceSampler.getRendererCpuStats());
+        metrics.put("browserPool", browserPoolService.getStats());
+        metrics.put("playwrightDrivers", driverCache.getStats());
+        metrics.put("storageState", storageStateCache.getStats());
+        metrics.put("workers", workerProcessService.getStats());
+        metrics.put("processes", processRegistry.getStats());
+        metrics.put("pageWatchdog", pageWatchdog.getStats());
+        metrics.put("joinStrategies", joinStrategyCache.getStats());
+        metrics.put("selectors", selectorRegistryService.getStats());
+        metrics.put("launchBenchmark", launchBenchmarkService.getLastResults());
+        metrics.put("diagnostics", diagnosticsCaptureService.getStats());
+        metrics.put("timestamp", java.time.Instant.now().toString());
+
+        return ResponseEntity.ok(ApiResponse.success("Metrics", metrics));
+    }
+
+    /**
+     * Compare Chromium launch profiles on this host (launch-to-prejoin time, steady-state RSS, optionally
+     * renderer CPU with and without captions-only mode).
+     * Runs synchronously, one fresh browser per profile, outside the meeting pool.
+     */
+    @PostMapping("/benchmark/launch-profiles")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> benchmarkLaunchProfiles(
+            @RequestParam String meetUrl,
+            @RequestParam(required = false) List<String> profiles,
+            @RequestParam(defaultValue = "20") int settleSeconds,
+            @RequestParam(defaultValue = "false") boolean captionsOnly) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Launch profile benchmark",
+                    launchBenchmarkService.run(meetUrl, profiles, settleSeconds, captionsOnly)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Re-read the selector registry now instead of waiting for the next reload check.
+     * An invalid registry is rejected and the current one stays active.
+     */
+    @PostMapping("/selectors/reload")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> reloadSelectors() {
+        try {
+            selectorRegistryService.reload();
+            return ResponseEntity.ok(ApiResponse.success("Selector registry reloaded", selectorRegistryService.getStats()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Selector registry rejected: " + e.getMessage()));
+        }
+    }
 }
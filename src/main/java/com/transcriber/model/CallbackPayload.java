@@ -23,6 +23,9 @@ public class CallbackPayload {
     private LocalDateTime actualEndTime;
     private List<TranscriptEntry> transcripts;
     private int totalEntries;
+    private List<CaptureGap> gaps;
     private String csvFilePath;
     private String errorMessage;
+    // END_TIME, STOPPED, MEETING_ENDED, ALONE, IDLE or PAGE_LOST; null if the meeting failed
+    private String endReason;
 }
@@ -0,0 +1,63 @@
+package com.transcriber.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One caption read from the meeting page: a page probe result (polled or pushed by the caption
+ * observer), converted as-is from the object the page returns, or a whole window read by the
+ * locator fallback. Probe results carry a delta: text replacing the cursor's caption stream from
+ * offset 'at' on, numbered by seq. Transcript entries name the events their text came from as
+ * {@link CaptionSpan}s, which reach the session, worker reports, saved JSON and the callback with them.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CaptionEvent {
+
+    private String meetingId;
+
+    // Capture run of the meeting the event belongs to: 0, then one more per re-join
+    private int run;
+
+    // Page cursor the delta belongs to and its sequence number (unchanged while the captions did not change);
+    // no cursor for locator windows
+    private String cursor;
+    private long seq;
+    private int at;
+
+    // System.nanoTime() when the event reached the meeting thread (or the binding, for pushed events)
+    private long arrivalNanos;
+
+    // How it was read: push/poll/locator, frame and probe method, e.g. "poll:iframe:2"
+    private String source;
+
+    // Index of the probe method that found captions, -1 if none did
+    @Builder.Default
+    private int method = -1;
+
+    // The meeting ended / bot removed (main frame only)
+    private boolean ended;
+
+    @Builder.Default
+    private String speaker = "";
+
+    @Builder.Default
+    private String text = "";
+
+    /**
+     * A probe method matched (the delta may still be empty), or a locator read a window.
+     */
+    public boolean foundCaptions() {
+        return method >= 0 || !text.isEmpty();
+    }
+
+    public boolean isDelta() {
+        return cursor != null;
+    }
+}
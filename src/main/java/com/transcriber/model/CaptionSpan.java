@@ -0,0 +1,35 @@
+package com.transcriber.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Where part of a transcript entry's text came from: the run of caption events (see {@link CaptionEvent})
+ * of one page cursor whose deltas make it up.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class CaptionSpan {
+
+    // Page cursor of the deltas ("window" for text read by the locator fallback) and the capture run
+    private String cursor;
+    private int run;
+
+    // Sequence numbers of the first and last delta
+    private long firstSeq;
+    private long lastSeq;
+
+    // How the deltas were read, e.g. "push:main", "poll:iframe", "locator:[aria-live='polite']"
+    private List<String> sources;
+
+    // When the first and the last delta arrived
+    private LocalDateTime firstArrival;
+    private LocalDateTime lastArrival;
+}
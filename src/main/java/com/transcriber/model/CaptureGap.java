@@ -0,0 +1,22 @@
+package com.transcriber.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A stretch of the meeting with no caption capture, e.g. while re-joining after a renderer crash.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CaptureGap {
+
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private String reason;
+}
@@ -0,0 +1,94 @@
+package com.transcriber.model;
+
+import lombok.Data;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-meeting performance measurements, reported with the meeting status.
+ */
+@Data
+public class MeetingMetrics {
+
+    // Warm-up: when the pre-join page was ready, relative to the scheduled start (negative = ahead of time)
+    private Long prejoinReadyOffsetMs;
+
+    // Chromium launch profile of the browser the meeting ran on
+    private String launchProfile;
+
+    // Join latency by phase (driver, browser, context, navigate, prejoin, join incl. admission, consent,
+    // captions) and in total; waiting for the scheduled start is excluded. The maps are synchronized
+    // (lock the map to copy it) because a worker reports them from another thread while they change
+    private Map<String, Long> joinPhaseMs = Collections.synchronizedMap(new LinkedHashMap<>());
+    private Long joinTotalMs;
+
+    // Time from "Ask to join" until admission was detected (latest join, including re-joins)
+    private Long admissionWaitMs;
+
+    // Join-button strategy that worked, and whether it came from the join strategy cache
+    private String joinStrategy;
+    private Boolean joinStrategyCacheHit;
+
+    // Time from scheduled start to the first captured caption
+    private Long firstCaptionLatencyMs;
+
+    // Caption changes pushed by the page observer vs full probes polled (every tick without push, else fallback)
+    private long captionPushEvents;
+    private long captionPolls;
+
+    // Polled probe evaluations (per frame): how many, average round trip, and how often the probe had to be
+    // (re)installed in a frame first
+    private long captionProbeCalls;
+    private Double captionProbeAvgMicros;
+    private long captionProbeInstalls;
+
+    // Polled ticks answered by the remembered caption frame/method, ticks it missed, and full scans
+    private long captionAffinityHits;
+    private long captionAffinityMisses;
+    private long captionFullScans;
+
+    // Caption deltas applied and the caption text they added up to
+    private long captionDeltas;
+    private long captionChars;
+
+    // Renderer cost: whether remote video was suppressed, and main-thread task time while the page was open
+    private boolean captionsOnly;
+    private Double rendererTaskSeconds;
+    private Double rendererCpuPercent;
+
+    // Peaks over the meeting's resource samples
+    private Long peakRssBytes;
+    private Double peakCpuPercent;
+    private Long peakJsHeapBytes;
+    private Long peakDomNodes;
+
+    // Failure/debug snapshots taken, and meeting-thread time they cost
+    private int diagnosticSnapshots;
+    private long diagnosticsCaptureMillis;
+
+    // Context was seeded from a storage state snapshot
+    private boolean storageStateReused;
+
+    // Network filter: requests dropped/stubbed vs sent to the network
+    private long blockedRequests;
+    private long passedRequests;
+
+    // Page watchdog: deadline-checked page calls, how many overran their budget or were slow, and the worst one
+    private long watchedCalls;
+    private long stalledCalls;
+    private long slowCalls;
+    private long maxCallMillis;
+
+    // Driver round trips per second while joining ("join") and on the latest capture run ("capture")
+    private Map<String, Double> pageCallsPerSecond = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    // Left early (alone/idle): seconds of the scheduled meeting time given back to other meetings
+    private Long earlyLeaveSavedSeconds;
+
+    // Hot re-join after the page/context was lost: how often, and time from loss until capture resumed
+    private int rejoins;
+    private Long lastRejoinLatencyMs;
+    private Long maxRejoinLatencyMs;
+}
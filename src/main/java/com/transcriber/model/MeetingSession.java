@@ -24,16 +24,51 @@ public class MeetingSession {
     
     private String errorMessage;
 
+    // Why capture ended (set once the bot leaves; null while running or if the meeting failed)
+    private EndReason endReason;
+
+    // Periods without caption capture (page lost and re-joined)
+    @Builder.Default
+    private List<CaptureGap> gaps = new CopyOnWriteArrayList<>();
+
+    @Builder.Default
+    private MeetingMetrics metrics = new MeetingMetrics();
+
+    // Browser CPU/memory/DOM samples over the meeting (oldest dropped beyond the configured maximum)
+    @Builder.Default
+    private List<ResourceSample> resourceSamples = new CopyOnWriteArrayList<>();
+
     public enum MeetingStatus {
         SCHEDULED,
         JOINING,
         IN_PROGRESS,
         COMPLETED,
         FAILED,
-        CANCELLED
+        CANCELLED,
+        // Not started: the host had no headroom for it (see errorMessage)
+        REJECTED
+    }
+
+    public enum EndReason {
+        // Scheduled end time reached
+        END_TIME,
+        // Stopped through the API
+        STOPPED,
+        // Meet showed the meeting as ended, or the bot was removed
+        MEETING_ENDED,
+        // Left early: nobody else in the meeting
+        ALONE,
+        // Left early: no caption activity for too long
+        IDLE,
+        // Page lost and re-joining gave up
+        PAGE_LOST
     }
 
     public void addTranscript(TranscriptEntry entry) {
         transcripts.add(entry);
     }
+
+    public void addGap(CaptureGap gap) {
+        gaps.add(gap);
+    }
 }
@@ -0,0 +1,36 @@
+package com.transcriber.model;
+
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * Where the meeting page stands, as answered by the selector registry's state probe in one evaluate.
+ */
+@Data
+public class PageState {
+
+    private boolean inMeeting;
+    private boolean waiting;
+    private boolean denied;
+    private boolean ended;
+    private boolean captionsOn;
+    private boolean consent;
+    // Participants Meet shows (including the bot), 0 if it can't be told
+    private int participants;
+    // Meet says nobody else is here
+    private boolean alone;
+
+    public static PageState from(Map<?, ?> probe) {
+        PageState state = new PageState();
+        state.setInMeeting(Boolean.TRUE.equals(probe.get("inMeeting")));
+        state.setWaiting(Boolean.TRUE.equals(probe.get("waiting")));
+        state.setDenied(Boolean.TRUE.equals(probe.get("denied")));
+        state.setEnded(Boolean.TRUE.equals(probe.get("ended")));
+        state.setCaptionsOn(Boolean.TRUE.equals(probe.get("captionsOn")));
+        state.setConsent(Boolean.TRUE.equals(probe.get("consent")));
+        state.setParticipants(probe.get("participants") instanceof Number n ? n.intValue() : 0);
+        state.setAlone(Boolean.TRUE.equals(probe.get("alone")));
+        return state;
+    }
+}
@@ -0,0 +1,35 @@
+package com.transcriber.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One sample of what a meeting's browser costs: OS-level figures for the processes tied to the
+ * meeting (/proc) and renderer figures from CDP Performance.getMetrics.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ResourceSample {
+
+    private LocalDateTime timestamp;
+
+    // Processes attributed to the meeting (renderers, or the worker JVM tree) and their totals
+    private int processes;
+    private double cpuSeconds;
+    private Double cpuPercent;
+    private long rssBytes;
+
+    // Renderer figures for the meeting page
+    private Long jsHeapUsedBytes;
+    private Long jsHeapTotalBytes;
+    private Long domNodes;
+    private Double taskSeconds;
+}
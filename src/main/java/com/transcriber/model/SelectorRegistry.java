@@ -0,0 +1,44 @@
+package com.transcriber.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Meet UI selectors and phrases the bot relies on, loaded from selectors.json so they can be
+ * updated without a redeploy when Meet changes its UI.
+ */
+@Data
+@NoArgsConstructor
+public class SelectorRegistry {
+
+    private String version;
+
+    // Regex alternatives for UI/accessibility text that is never a caption (page side)
+    private List<String> captionUiPatterns = new ArrayList<>();
+
+    // Substrings that mark captured text as UI junk (checked again in Java)
+    private List<String> junkPatterns = new ArrayList<>();
+
+    // Page text shown once the meeting ended or we were removed
+    private List<String> endedTexts = new ArrayList<>();
+
+    // Admission: refused, admitted (selectors of in-meeting controls), still waiting
+    private List<String> deniedTexts = new ArrayList<>();
+    private List<String> inMeetingSelectors = new ArrayList<>();
+    private List<String> waitingTexts = new ArrayList<>();
+
+    // Selectors that match only while captions are turned on
+    private List<String> captionsOnSelectors = new ArrayList<>();
+
+    // Participants: elements carrying a participant id attribute, controls whose label/badge holds the count,
+    // and texts Meet shows when nobody else is in the call
+    private List<String> participantSelectors = new ArrayList<>();
+    private List<String> participantCountSelectors = new ArrayList<>();
+    private List<String> aloneTexts = new ArrayList<>();
+
+    // Recording/Gemini consent dialog text
+    private List<String> consentPhrases = new ArrayList<>();
+}
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @Builder
@@ -17,6 +18,9 @@ public class TranscriptEntry {
     private String text;
     private LocalDateTime timestamp;
 
+    // Caption events the text was built from (cursor, seq range, how and when they were read); null if unknown
+    private List<CaptionSpan> captions;
+
     // For CSV export
     public String[] toStringArray() {
         return new String[]{
@@ -0,0 +1,58 @@
+package com.transcriber.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One JSON line exchanged between the main service and a meeting worker process.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WorkerMessage {
+
+    public static final String HELLO = "hello";
+    public static final String START = "start";
+    public static final String STOP = "stop";
+    public static final String STATUS = "status";
+    public static final String CAPTIONS = "captions";
+    public static final String EVENTS = "events";
+    public static final String DONE = "done";
+
+    private String type;
+    private String uuid;
+    private String token;
+
+    // START: meeting to run (times as ISO zoned date-times so the zone survives the round trip)
+    private String meetUrl;
+    private String startTime;
+    private String endTime;
+    private String callbackUrl;
+
+    // STATUS / CAPTIONS / DONE: progress reported by the worker
+    private String status;
+    private List<TranscriptEntry> entries;
+    private MeetingMetrics metrics;
+    private List<CaptureGap> gaps;
+    private List<ResourceSample> resourceSamples;
+    private String errorMessage;
+    private String endReason;
+
+    // CAPTIONS: capture run in progress; the entries of all earlier runs have been sent
+    private Integer captionRun;
+
+    // CAPTIONS: capture run whose entries are complete with this message (its caption events can be dropped)
+    private Integer parsedRun;
+
+    // EVENTS: caption events as the worker applied them, sent as they happen, and the worker's
+    // System.nanoTime() when sent (arrival times are relative to it)
+    private List<CaptionEvent> events;
+    private Long sentNanos;
+}
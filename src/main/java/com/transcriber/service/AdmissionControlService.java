@@ -0,0 +1,202 @@
+package com.transcriber.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides whether a meeting may start now, based on the host's measured headroom rather than a
+ * fixed count: available memory (MemAvailable) against the memory a meeting actually costs here
+ * (browser RSS divided by running meetings), and load per CPU. Meetings that don't fit wait for
+ * headroom for a while and are then rejected. meeting.max-concurrent-meetings stays as a ceiling.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AdmissionControlService {
+
+    public enum Decision { START, WAIT, REJECT }
+
+    private final ProcessRegistry processRegistry;
+
+    @Value("${meeting.admission-control.enabled:true}")
+    private boolean enabled;
+
+    @Value("${meeting.max-concurrent-meetings:10}")
+    private int maxConcurrentMeetings;
+
+    // Memory kept free for the OS, this JVM and page cache
+    @Value("${meeting.admission-control.reserve-memory-mb:1024}")
+    private long reserveMemoryMb;
+
+    // Assumed cost of a meeting until running meetings give a measured figure
+    @Value("${meeting.admission-control.meeting-memory-mb:500}")
+    private long defaultMeetingMemoryMb;
+
+    @Value("${meeting.admission-control.max-load-per-cpu:1.5}")
+    private double maxLoadPerCpu;
+
+    // How long a meeting may wait for headroom before it is rejected
+    @Value("${meeting.admission-control.max-wait-seconds:60}")
+    private int maxWaitSeconds;
+
+    // Meetings waiting for headroom beyond this are rejected right away
+    @Value("${meeting.admission-control.max-waiting:20}")
+    private int maxWaiting;
+
+    // Admitted meetings whose browser may not show up in RSS yet (admission time, ms)
+    private static final long RAMP_UP_MS = 60000;
+
+    private final AtomicInteger running = new AtomicInteger();
+    // Meetings waiting for headroom -> since when (epoch ms)
+    private final ConcurrentHashMap<String, Long> waitingSince = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedDeque<Long> recentStarts = new ConcurrentLinkedDeque<>();
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong waited = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile String lastBlocker = "";
+
+    /**
+     * Decide whether the meeting may start. A meeting told to WAIT should ask again shortly; START
+     * reserves a slot that must be given back with {@link #release}.
+     */
+    public synchronized Decision decide(String uuid) {
+        long now = System.currentTimeMillis();
+        Long since = waitingSince.get(uuid);
+        String blocker = blocker();
+        if (blocker == null) {
+            waitingSince.remove(uuid);
+            running.incrementAndGet();
+            recentStarts.addLast(now);
+            started.incrementAndGet();
+            return Decision.START;
+        }
+
+        lastBlocker = blocker;
+        boolean queueFull = since == null && waitingSince.size() >= maxWaiting;
+        boolean waitedTooLong = since != null && now - since > maxWaitSeconds * 1000L;
+        if (queueFull || waitedTooLong) {
+            waitingSince.remove(uuid);
+            rejected.incrementAndGet();
+            log.warn("[{}] Rejected by admission control: {}", uuid, blocker);
+            return Decision.REJECT;
+        }
+        if (since == null) {
+            waitingSince.put(uuid, now);
+            waited.incrementAndGet();
+            log.info("[{}] Waiting for host headroom: {}", uuid, blocker);
+        }
+        return Decision.WAIT;
+    }
+
+    /**
+     * The meeting was cancelled while waiting for headroom.
+     */
+    public void forget(String uuid) {
+        waitingSince.remove(uuid);
+    }
+
+    /**
+     * Why no further meeting fits right now, or null if one does.
+     */
+    public String blocker() {
+        int active = running.get();
+        if (active >= maxConcurrentMeetings) {
+            return "max-concurrent-meetings (" + maxConcurrentMeetings + ") reached";
+        }
+        if (!enabled) {
+            return null;
+        }
+
+        long available = memAvailableMb();
+        long perMeeting = meetingMemoryMb();
+        // Meetings admitted moments ago have not allocated their browser memory yet
+        long ramping = rampingMeetings();
+        long needed = reserveMemoryMb + perMeeting * (ramping + 1);
+        if (available >= 0 && available < needed) {
+            return "memory: " + available + " MB available, " + needed + " MB needed ("
+                    + perMeeting + " MB per meeting, " + ramping + " starting)";
+        }
+
+        double load = ManagementFactory.getOperatingSystemMXBean().getSystemLoadAverage();
+        int cpus = Runtime.getRuntime().availableProcessors();
+        if (load >= 0 && load / cpus > maxLoadPerCpu) {
+            return String.format("load: %.2f on %d CPUs exceeds %.2f per CPU", load, cpus, maxLoadPerCpu);
+        }
+        return null;
+    }
+
+    public String getLastBlocker() {
+        return lastBlocker;
+    }
+
+    public void release(String uuid) {
+        running.decrementAndGet();
+        log.debug("[{}] Released admission slot", uuid);
+    }
+
+    /**
+     * Measured browser memory per running meeting, or the configured default when nothing runs.
+     */
+    private long meetingMemoryMb() {
+        int active = running.get();
+        if (active == 0) {
+            return defaultMeetingMemoryMb;
+        }
+        long browserRssMb = processRegistry.browserRssBytes() / (1024 * 1024);
+        return Math.max(browserRssMb / active, defaultMeetingMemoryMb / 2);
+    }
+
+    private long rampingMeetings() {
+        long cutoff = System.currentTimeMillis() - RAMP_UP_MS;
+        while (!recentStarts.isEmpty() && recentStarts.peekFirst() < cutoff) {
+            recentStarts.pollFirst();
+        }
+        return Math.min(recentStarts.size(), running.get());
+    }
+
+    /**
+     * MemAvailable from /proc/meminfo in MB, -1 if unknown (non-Linux).
+     */
+    private static long memAvailableMb() {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc/meminfo"))) {
+                if (line.startsWith("MemAvailable:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", "")) / 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // not Linux
+        }
+        return -1;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("running", running.get());
+        stats.put("waiting", waitingSince.size());
+        stats.put("memAvailableMb", memAvailableMb());
+        stats.put("browserRssMb", processRegistry.browserRssBytes() / (1024 * 1024));
+        stats.put("meetingMemoryMb", meetingMemoryMb());
+        stats.put("loadAverage", ManagementFactory.getOperatingSystemMXBean().getSystemLoadAverage());
+        stats.put("blocker", blocker());
+        stats.put("started", started.get());
+        stats.put("waited", waited.get());
+        stats.put("rejected", rejected.get());
+        stats.put("lastBlocker", lastBlocker);
+        return stats;
+    }
+}
@@ -0,0 +1,543 @@
+package com.transcriber.service;
+
+import com.microsoft.playwright.Playwright;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a small number of long-lived Chromium processes and leases one BrowserContext slot
+ * per meeting. Meeting threads connect to a leased browser over CDP with their own
+ * (thread-bound) Playwright instance and create an isolated context on it, so concurrent
+ * meetings share one Chromium process tree instead of launching one each.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BrowserPoolService {
+
+    private final ProcessRegistry processRegistry;
+
+    @Value("${playwright.headless:true}")
+    private boolean headless;
+
+    @Value("${playwright.pool.max-browsers:5}")
+    private int maxBrowsers;
+
+    @Value("${playwright.pool.contexts-per-browser:4}")
+    private int contextsPerBrowser;
+
+    @Value("${playwright.pool.launch-timeout-seconds:30}")
+    private int launchTimeoutSeconds;
+
+    @Value("${playwright.pool.idle-timeout-seconds:300}")
+    private int idleTimeoutSeconds;
+
+    // Launch profile for pooled browsers: default or lean
+    @Value("${playwright.launch-profile:default}")
+    private String launchProfile;
+
+    // headless_shell binary for profiles that use it; found next to Playwright's Chromium if not set
+    @Value("${playwright.headless-shell-path:}")
+    private String headlessShellPath;
+
+    // Chromium binary for pooled browsers; found in Playwright's browser cache if not set
+    @Value("${playwright.chromium-path:}")
+    private String chromiumPath;
+
+    // Chromium flags shared by every pooled browser
+    private static final List<String> BROWSER_ARGS = List.of(
+            // Media permissions (use fake stream to avoid needing real camera/mic)
+            "--use-fake-ui-for-media-stream",
+            "--use-fake-device-for-media-stream",
+            // NOTE: Do NOT use --auto-accept-camera-and-microphone-capture - it conflicts with fake-ui
+
+            // Anti-detection: hide automation flags
+            "--disable-blink-features=AutomationControlled",
+
+            // Appear as normal browser
+            "--disable-infobars",
+            "--no-first-run",
+            "--no-default-browser-check",
+
+            // Performance & stability
+            "--disable-gpu",
+            "--disable-dev-shm-usage",
+            "--no-sandbox"
+    );
+
+    /**
+     * Named launch profiles: extra Chromium flags on top of BROWSER_ARGS, and whether to run the
+     * headless_shell binary (no browser UI layer, fewer helper processes) instead of full Chromium.
+     */
+    public static final Map<String, LaunchProfile> LAUNCH_PROFILES = Map.of(
+            "default", new LaunchProfile("default", List.of(), false),
+            "lean", new LaunchProfile("lean", List.of(
+                    // Fewer processes: no site-per-process isolation, no utility features we never use
+                    "--disable-site-isolation-trials",
+                    "--disable-features=site-per-process,IsolateOrigins,Translate,MediaRouter,OptimizationHints,"
+                            + "AutofillServerCommunication,InterestFeedContentSuggestions",
+                    "--disable-extensions",
+                    "--disable-component-update",
+                    "--disable-background-networking",
+                    "--disable-sync",
+                    "--disable-breakpad",
+                    "--metrics-recording-only",
+                    // Small caches: pages are short-lived and media is blocked anyway
+                    "--disk-cache-size=1048576",
+                    "--media-cache-size=1048576",
+                    // The meeting page is never focused; keep its timers and caption rendering unthrottled
+                    "--disable-background-timer-throttling",
+                    "--disable-renderer-backgrounding",
+                    "--disable-backgrounding-occluded-windows",
+                    "--mute-audio"
+            ), true)
+    );
+
+    private final List<PooledBrowser> browsers = new ArrayList<>();
+    // Browsers being launched outside the lock; they count against maxBrowsers
+    private int launching;
+    private boolean closed;
+    private final AtomicInteger browserIds = new AtomicInteger();
+    private final AtomicLong launchCount = new AtomicLong();
+    private final AtomicLong totalLaunchMillis = new AtomicLong();
+    private final AtomicLong lastLaunchMillis = new AtomicLong();
+    // Launch count and total launch time per profile
+    private final Map<String, long[]> launchesByProfile = new LinkedHashMap<>();
+    private volatile String executablePath;
+    private final Object executablePathLock = new Object();
+
+    @PostConstruct
+    public void validateLaunchProfile() {
+        profile(launchProfile);
+    }
+
+    /**
+     * Lease a context slot for a meeting, launching a new browser if every running one is full.
+     * The launch runs without holding the pool lock: the slot is reserved first and the browser is
+     * published once it is up, so leases on running browsers and releases are not held up by it.
+     *
+     * @throws IllegalStateException if all browsers are at capacity and the pool is at max size
+     */
+    public Lease lease(String uuid) throws IOException, InterruptedException {
+        synchronized (this) {
+            removeDeadBrowsers();
+
+            PooledBrowser target = browsers.stream()
+                    .filter(b -> b.getLeased().get() < contextsPerBrowser)
+                    .min(Comparator.comparingInt(b -> b.getLeased().get()))
+                    .orElse(null);
+            if (target != null) {
+                return leaseOn(target, uuid);
+            }
+            if (browsers.size() + launching >= maxBrowsers) {
+                throw new IllegalStateException("Browser pool exhausted: " + browsers.size() + " browsers x "
+                        + contextsPerBrowser + " contexts are all leased" + (launching > 0 ? ", " + launching + " launching" : ""));
+            }
+            launching++;
+        }
+
+        PooledBrowser launched;
+        try {
+            launched = launchBrowser(profile(launchProfile));
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            synchronized (this) {
+                launching--;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            launching--;
+            if (closed) {
+                shutdown(launched);
+                throw new IllegalStateException("Browser pool is shut down");
+            }
+            browsers.add(launched);
+            return leaseOn(launched, uuid);
+        }
+    }
+
+    private Lease leaseOn(PooledBrowser target, String uuid) {
+        target.getLeased().incrementAndGet();
+        target.setLastReleasedAt(0);
+        log.info("[{}] Leased context on pooled browser #{} ({}/{} contexts in use)",
+                uuid, target.getId(), target.getLeased().get(), contextsPerBrowser);
+        return new Lease(this, target, uuid);
+    }
+
+    private synchronized void release(Lease lease) {
+        PooledBrowser browser = lease.getBrowser();
+        int remaining = browser.getLeased().decrementAndGet();
+        if (remaining == 0) {
+            browser.setLastReleasedAt(System.currentTimeMillis());
+        }
+        log.info("[{}] Released context on pooled browser #{} ({}/{} contexts in use)",
+                lease.getUuid(), browser.getId(), remaining, contextsPerBrowser);
+    }
+
+    /**
+     * Launch a browser outside the pool (e.g. for the launch profile benchmark). The caller must close it.
+     */
+    public Standalone launchStandalone(String profileName) throws IOException, InterruptedException {
+        return new Standalone(this, launchBrowser(profile(profileName)));
+    }
+
+    public String getLaunchProfile() {
+        return profile(launchProfile).getName();
+    }
+
+    private LaunchProfile profile(String name) {
+        LaunchProfile profile = LAUNCH_PROFILES.get(name);
+        if (profile == null) {
+            throw new IllegalArgumentException("Unknown launch profile '" + name + "', expected one of " + LAUNCH_PROFILES.keySet());
+        }
+        return profile;
+    }
+
+    private PooledBrowser launchBrowser(LaunchProfile profile) throws IOException, InterruptedException {
+        String chromium = executablePath();
+        long start = System.currentTimeMillis();
+        int id = browserIds.incrementAndGet();
+        Path profileDir = Files.createTempDirectory("meet-browser-" + id + "-");
+
+        String shell = profile.isHeadlessShell() && headless ? headlessShell() : null;
+        List<String> command = new ArrayList<>();
+        command.add(shell != null ? shell : chromium);
+        command.addAll(BROWSER_ARGS);
+        command.addAll(profile.getArgs());
+        if (headless && shell == null) {
+            command.add("--headless=new");
+        }
+        command.add("--remote-debugging-port=0");
+        command.add("--user-data-dir=" + profileDir);
+        command.add("about:blank");
+
+        String label = "browser#" + id;
+        Process process;
+        synchronized (ProcessRegistry.SPAWN_LOCK) {
+            process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+        }
+        processRegistry.registerRoot(process.toHandle(), label);
+
+        // Chromium writes the chosen debugging port to DevToolsActivePort once it is listening
+        Path portFile = profileDir.resolve("DevToolsActivePort");
+        long deadline = start + launchTimeoutSeconds * 1000L;
+        while (!Files.exists(portFile) || Files.size(portFile) == 0) {
+            if (!process.isAlive()) {
+                processRegistry.unregisterRoot(process.pid(), label);
+                deleteQuietly(profileDir);
+                throw new IOException("Chromium exited during launch with code " + process.exitValue());
+            }
+            if (System.currentTimeMillis() > deadline) {
+                process.destroyForcibly();
+                processRegistry.unregisterRoot(process.pid(), label);
+                deleteQuietly(profileDir);
+                throw new IOException("Chromium did not open a debugging port within " + launchTimeoutSeconds + " seconds");
+            }
+            Thread.sleep(50);
+        }
+        String port = Files.readAllLines(portFile).get(0).trim();
+
+        long elapsed = System.currentTimeMillis() - start;
+        launchCount.incrementAndGet();
+        totalLaunchMillis.addAndGet(elapsed);
+        lastLaunchMillis.set(elapsed);
+        synchronized (launchesByProfile) {
+            long[] perProfile = launchesByProfile.computeIfAbsent(profile.getName(), k -> new long[2]);
+            perProfile[0]++;
+            perProfile[1] += elapsed;
+        }
+        log.info("Launched browser #{} (pid {}, profile {}{}) on port {} in {} ms", id, process.pid(),
+                profile.getName(), shell != null ? ", headless_shell" : "", port, elapsed);
+
+        return new PooledBrowser(id, process, "http://127.0.0.1:" + port, profileDir);
+    }
+
+    /**
+     * Chromium binary: configured, else the newest chromium-NNNN in Playwright's browser cache, else asked from a
+     * Playwright driver (which also installs the browsers) once. Resolved once per pool.
+     */
+    private String executablePath() {
+        String path = executablePath;
+        if (path != null) {
+            return path;
+        }
+        synchronized (executablePathLock) {
+            if (executablePath == null) {
+                String resolved = !chromiumPath.isBlank() ? chromiumPath : findCachedChromium();
+                if (resolved == null) {
+                    synchronized (ProcessRegistry.SPAWN_LOCK) {
+                        try (Playwright pw = Playwright.create()) {
+                            resolved = pw.chromium().executablePath();
+                        }
+                    }
+                }
+                log.info("Pooled browsers use Chromium at {}", resolved);
+                executablePath = resolved;
+            }
+            return executablePath;
+        }
+    }
+
+    private String findCachedChromium() {
+        String browsersPath = System.getenv("PLAYWRIGHT_BROWSERS_PATH");
+        Path cache = browsersPath != null && !browsersPath.isBlank() && !"0".equals(browsersPath)
+                ? Path.of(browsersPath)
+                : Path.of(System.getProperty("user.home"), ".cache", "ms-playwright");
+        if (!Files.isDirectory(cache)) {
+            return null;
+        }
+        try (var dirs = Files.list(cache)) {
+            return dirs.filter(dir -> dir.getFileName().toString().matches("chromium-\\d+"))
+                    .sorted(Comparator.comparingInt((Path dir) ->
+                            Integer.parseInt(dir.getFileName().toString().substring("chromium-".length()))).reversed())
+                    .flatMap(dir -> Stream.of(dir.resolve("chrome-linux").resolve("chrome"),
+                            dir.resolve("chrome-linux64").resolve("chrome")))
+                    .filter(Files::isExecutable)
+                    .map(Path::toString)
+                    .findFirst()
+                    .orElse(null);
+        } catch (IOException e) {
+            log.warn("Could not look for Chromium in {}: {}", cache, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Playwright installs chromium_headless_shell-NNNN next to chromium-NNNN in its browser cache.
+     */
+    private String headlessShell() {
+        if (!headlessShellPath.isBlank()) {
+            return headlessShellPath;
+        }
+        // .../ms-playwright/chromium-NNNN/chrome-linux/chrome -> .../ms-playwright
+        Path cache = Path.of(executablePath()).getParent().getParent().getParent();
+        try (var paths = Files.find(cache, 3, (path, attrs) -> attrs.isRegularFile()
+                && path.getFileName().toString().equals("headless_shell")
+                && path.toString().contains("chromium_headless_shell"))) {
+            String found = paths.map(Path::toString).findFirst().orElse(null);
+            if (found == null) {
+                log.warn("headless_shell not found under {}, launching Chromium in --headless=new mode instead", cache);
+            }
+            return found;
+        } catch (IOException e) {
+            log.warn("Could not look for headless_shell: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void removeDeadBrowsers() {
+        Iterator<PooledBrowser> it = browsers.iterator();
+        while (it.hasNext()) {
+            PooledBrowser browser = it.next();
+            if (!browser.getProcess().isAlive()) {
+                log.warn("Pooled browser #{} is no longer running, removing from pool", browser.getId());
+                processRegistry.unregisterRoot(browser.getProcess().pid(), "browser#" + browser.getId());
+                deleteQuietly(browser.getProfileDir());
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Shut down browsers that have had no leased contexts for longer than the idle timeout.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public synchronized void retireIdleBrowsers() {
+        removeDeadBrowsers();
+        long now = System.currentTimeMillis();
+        Iterator<PooledBrowser> it = browsers.iterator();
+        while (it.hasNext()) {
+            PooledBrowser browser = it.next();
+            if (browser.getLeased().get() == 0 && browser.getLastReleasedAt() > 0
+                    && now - browser.getLastReleasedAt() > idleTimeoutSeconds * 1000L) {
+                log.info("Retiring idle pooled browser #{}", browser.getId());
+                shutdown(browser);
+                it.remove();
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void cleanup() {
+        closed = true;
+        browsers.forEach(this::shutdown);
+        browsers.clear();
+        log.info("Browser pool shut down");
+    }
+
+    private void shutdown(PooledBrowser browser) {
+        Process process = browser.getProcess();
+        process.destroy();
+        try {
+            if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+        processRegistry.unregisterRoot(process.pid(), "browser#" + browser.getId());
+        deleteQuietly(browser.getProfileDir());
+    }
+
+    private void deleteQuietly(Path dir) {
+        try (var paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException e) {
+            log.debug("Could not delete browser profile {}: {}", dir, e.getMessage());
+        }
+    }
+
+    /**
+     * Pool size, leased/idle context counts and launch latency, for node sizing.
+     */
+    public synchronized Map<String, Object> getStats() {
+        int leased = browsers.stream().mapToInt(b -> b.getLeased().get()).sum();
+        long launches = launchCount.get();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("browsers", browsers.size());
+        stats.put("launching", launching);
+        stats.put("maxBrowsers", maxBrowsers);
+        stats.put("contextsPerBrowser", contextsPerBrowser);
+        stats.put("leasedContexts", leased);
+        stats.put("idleContexts", browsers.size() * contextsPerBrowser - leased);
+        stats.put("launches", launches);
+        stats.put("lastLaunchMillis", lastLaunchMillis.get());
+        stats.put("avgLaunchMillis", launches > 0 ? totalLaunchMillis.get() / launches : 0);
+        stats.put("launchProfile", launchProfile);
+        Map<String, Object> byProfile = new LinkedHashMap<>();
+        synchronized (launchesByProfile) {
+            launchesByProfile.forEach((name, counts) -> byProfile.put(name, Map.of(
+                    "launches", counts[0],
+                    "avgLaunchMillis", counts[0] > 0 ? counts[1] / counts[0] : 0)));
+        }
+        stats.put("launchesByProfile", byProfile);
+        return stats;
+    }
+
+    @Getter
+    private static class PooledBrowser {
+        private final int id;
+        private final Process process;
+        private final String endpoint;
+        private final Path profileDir;
+        private final AtomicInteger leased = new AtomicInteger();
+        private volatile long lastReleasedAt;
+
+        PooledBrowser(int id, Process process, String endpoint, Path profileDir) {
+            this.id = id;
+            this.process = process;
+            this.endpoint = endpoint;
+            this.profileDir = profileDir;
+        }
+
+        void setLastReleasedAt(long lastReleasedAt) {
+            this.lastReleasedAt = lastReleasedAt;
+        }
+    }
+
+    @Getter
+    public static class LaunchProfile {
+        private final String name;
+        private final List<String> args;
+        private final boolean headlessShell;
+
+        LaunchProfile(String name, List<String> args, boolean headlessShell) {
+            this.name = name;
+            this.args = args;
+            this.headlessShell = headlessShell;
+        }
+    }
+
+    /**
+     * A browser launched outside the pool; closing it shuts the browser down.
+     */
+    public static class Standalone implements AutoCloseable {
+        private final BrowserPoolService pool;
+        private final PooledBrowser browser;
+
+        private Standalone(BrowserPoolService pool, PooledBrowser browser) {
+            this.pool = pool;
+            this.browser = browser;
+        }
+
+        public String getEndpoint() {
+            return browser.getEndpoint();
+        }
+
+        public long getPid() {
+            return browser.getProcess().pid();
+        }
+
+        @Override
+        public void close() {
+            pool.shutdown(browser);
+        }
+    }
+
+    /**
+     * A context slot on a pooled browser. Release exactly once when the meeting's context is closed.
+     */
+    public static class Lease implements AutoCloseable {
+        private final BrowserPoolService pool;
+        private final PooledBrowser browser;
+        @Getter
+        private final String uuid;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private Lease(BrowserPoolService pool, PooledBrowser browser, String uuid) {
+            this.pool = pool;
+            this.browser = browser;
+            this.uuid = uuid;
+        }
+
+        private PooledBrowser getBrowser() {
+            return browser;
+        }
+
+        public String getEndpoint() {
+            return browser.getEndpoint();
+        }
+
+        public int getBrowserId() {
+            return browser.getId();
+        }
+
+        public long getBrowserPid() {
+            return browser.getProcess().pid();
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                pool.release(this);
+            }
+        }
+    }
+}
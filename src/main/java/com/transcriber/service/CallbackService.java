@@ -40,8 +40,10 @@ public class CallbackService {
                 .actualEndTime(LocalDateTime.now())
                 .transcripts(mergedTranscripts)
                 .totalEntries(mergedTranscripts.size())
+                .gaps(session.getGaps())
                 .csvFilePath(csvFilePath)
                 .errorMessage(session.getErrorMessage())
+                .endReason(session.getEndReason() != null ? session.getEndReason().name() : null)
                 .build();
 
         webClient.post()
@@ -74,7 +76,9 @@ public class CallbackService {
         CallbackPayload payload = CallbackPayload.builder()
                 .uuid(session.getUuid())
                 .meetUrl(session.getMeetUrl())
-                .status(MeetingSession.MeetingStatus.FAILED.name())
+                .status(session.getStatus() == MeetingSession.MeetingStatus.REJECTED
+                        ? MeetingSession.MeetingStatus.REJECTED.name()
+                        : MeetingSession.MeetingStatus.FAILED.name())
                 .errorMessage(error)
                 .build();
 
@@ -0,0 +1,223 @@
+package com.transcriber.service;
+
+import com.transcriber.model.CaptionEvent;
+import com.transcriber.model.CaptionSpan;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The caption text of one capture run, rebuilt from the page probe's deltas. Each delta replaces
+ * its cursor's text from its offset on, so appended words and Meet's revisions of the last words
+ * both apply in place, and text that scrolled out of the caption pane stays. Offsets are relative
+ * to the page cursor that produced them, and each cursor (page or frame) keeps its own text and
+ * sequence, so events from another cursor never move it; the stream is the cursors' texts in the
+ * order they first produced any, one block per cursor. Each delta is kept by the offset it starts
+ * at, so text can be dated by when it was captured and traced to the events it came from. Used
+ * from one thread only.
+ */
+public class CaptionStream {
+
+    // Head of a window that is looked up in the previous one (same as the page probe)
+    private static final int ANCHOR_CHARS = 24;
+
+    // Cursor used for whole windows read by the locator fallback
+    private static final String WINDOW_CURSOR = "window";
+
+    private final Map<String, Segment> segments = new LinkedHashMap<>();
+    // Snapshot windows (locator fallback) are turned into deltas here, like the page does for probe results
+    private String lastWindow = "";
+    private int windowBase;
+    private long deltas;
+
+    /**
+     * Apply a probe event's delta; returns false if it was already applied (or is older) or carries no text.
+     */
+    public boolean apply(CaptionEvent event) {
+        return apply(event.getCursor(), event.getSeq(), event.getAt(), event.getText(), event);
+    }
+
+    private boolean apply(String cursorId, long seq, int at, String delta, CaptionEvent event) {
+        Segment segment = segments.get(cursorId);
+        if (delta.isEmpty() || segment != null && seq <= segment.lastSeq) {
+            return false;
+        }
+        if (segment == null) {
+            segment = new Segment();
+            segments.put(cursorId, segment);
+        }
+        segment.lastSeq = seq;
+        int pos = Math.min(segment.text.length(), Math.max(0, at));
+        segment.text.setLength(pos);
+        segment.text.append(delta);
+        // Revised text counts from this delta's arrival
+        segment.pieces.tailMap(pos, true).clear();
+        segment.pieces.put(pos, new Piece(cursorId, seq, event.getRun(), event.getSource(), event.getArrivalNanos()));
+        deltas++;
+        return true;
+    }
+
+    /**
+     * Apply a whole caption window read without the page cursor (locator event); returns false if it did not change.
+     */
+    public boolean applyWindow(CaptionEvent event) {
+        String window = event.getText();
+        if (window.isEmpty() || window.equals(lastWindow)) {
+            return false;
+        }
+        int d = window.startsWith(lastWindow) ? 0
+                : lastWindow.indexOf(window.substring(0, Math.min(ANCHOR_CHARS, window.length())));
+        int at;
+        String delta;
+        if (d >= 0) {
+            String prev = lastWindow.substring(d);
+            int p = 0;
+            while (p < prev.length() && p < window.length() && prev.charAt(p) == window.charAt(p)) {
+                p++;
+            }
+            windowBase += d;
+            at = windowBase + p;
+            delta = window.substring(p);
+        } else {
+            String sep = lastWindow.isEmpty() ? "" : "\n";
+            at = windowBase + lastWindow.length();
+            delta = sep + window;
+            windowBase = at + sep.length();
+        }
+        lastWindow = window;
+        Segment segment = segments.get(WINDOW_CURSOR);
+        return apply(WINDOW_CURSOR, segment != null ? segment.lastSeq + 1 : 1, at, delta, event);
+    }
+
+    /**
+     * Wall-clock time the text at this offset was captured.
+     */
+    public LocalDateTime timeAt(int offset) {
+        int start = 0;
+        for (Segment segment : segments.values()) {
+            if (segment.text.length() == 0) {
+                continue;
+            }
+            int end = start + segment.text.length();
+            if (offset < end) {
+                Map.Entry<Integer, Piece> piece = segment.pieces.floorEntry(Math.max(0, offset - start));
+                return piece != null ? toTime(piece.getValue().arrivalNanos) : LocalDateTime.now();
+            }
+            start = end + 1;
+        }
+        return LocalDateTime.now();
+    }
+
+    /**
+     * The deltas the text between these offsets came from, one span per cursor in stream order.
+     */
+    public List<CaptionSpan> spans(int from, int to) {
+        List<CaptionSpan> spans = new ArrayList<>();
+        int start = 0;
+        for (Segment segment : segments.values()) {
+            if (segment.text.length() == 0) {
+                continue;
+            }
+            int end = start + segment.text.length();
+            int localFrom = Math.max(0, from - start);
+            int localTo = Math.min(segment.text.length(), to - start);
+            if (localFrom < localTo) {
+                Integer first = segment.pieces.floorKey(localFrom);
+                for (Piece piece : segment.pieces.subMap(first != null ? first : localFrom, true, localTo, false).values()) {
+                    addPiece(spans, piece);
+                }
+            }
+            start = end + 1;
+        }
+        return spans;
+    }
+
+    private static void addPiece(List<CaptionSpan> spans, Piece piece) {
+        CaptionSpan last = spans.isEmpty() ? null : spans.get(spans.size() - 1);
+        LocalDateTime arrival = toTime(piece.arrivalNanos);
+        if (last != null && last.getCursor().equals(piece.cursor) && last.getRun() == piece.run) {
+            last.setLastSeq(piece.seq);
+            last.setLastArrival(arrival);
+            if (piece.source != null && !last.getSources().contains(piece.source)) {
+                last.getSources().add(piece.source);
+            }
+        } else {
+            List<String> sources = new ArrayList<>();
+            if (piece.source != null) {
+                sources.add(piece.source);
+            }
+            spans.add(CaptionSpan.builder()
+                    .cursor(piece.cursor)
+                    .run(piece.run)
+                    .firstSeq(piece.seq)
+                    .lastSeq(piece.seq)
+                    .sources(sources)
+                    .firstArrival(arrival)
+                    .lastArrival(arrival)
+                    .build());
+        }
+    }
+
+    private static LocalDateTime toTime(long arrivalNanos) {
+        return LocalDateTime.now().minus(System.nanoTime() - arrivalNanos, ChronoUnit.NANOS);
+    }
+
+    /**
+     * The cursors' texts in order, separated by a newline.
+     */
+    public String getText() {
+        StringBuilder all = new StringBuilder();
+        for (Segment segment : segments.values()) {
+            if (segment.text.length() > 0) {
+                if (all.length() > 0) {
+                    all.append('\n');
+                }
+                all.append(segment.text);
+            }
+        }
+        return all.toString();
+    }
+
+    public int length() {
+        int length = -1;
+        for (Segment segment : segments.values()) {
+            if (segment.text.length() > 0) {
+                length += segment.text.length() + 1;
+            }
+        }
+        return Math.max(0, length);
+    }
+
+    public long getDeltas() {
+        return deltas;
+    }
+
+    // One cursor's text, its last applied sequence number and its deltas by local offset
+    private static class Segment {
+        private final StringBuilder text = new StringBuilder();
+        private long lastSeq;
+        private final TreeMap<Integer, Piece> pieces = new TreeMap<>();
+    }
+
+    private static class Piece {
+        private final String cursor;
+        private final long seq;
+        private final int run;
+        private final String source;
+        // System.nanoTime() when the delta arrived
+        private final long arrivalNanos;
+
+        Piece(String cursor, long seq, int run, String source, long arrivalNanos) {
+            this.cursor = cursor;
+            this.seq = seq;
+            this.run = run;
+            this.source = source;
+            this.arrivalNanos = arrivalNanos;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.transcriber.service;
+
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.options.ScreenshotType;
+import com.transcriber.model.MeetingMetrics;
+import com.transcriber.model.MeetingSession;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Failure and debug snapshots of a meeting page. Only the screenshot itself (a viewport JPEG,
+ * under the page watchdog) runs on the meeting thread; encoding the page HTML and all disk I/O
+ * happen on a background writer. Files live under diagnostics/&lt;uuid&gt;/ with a per-meeting and a
+ * global byte budget; when a budget is exceeded the oldest debug files go first, then the oldest
+ * failure snapshots.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DiagnosticsCaptureService {
+
+    private static final String FAILURE_PREFIX = "failure_";
+    // page.content() beyond this is cut off before compression
+    private static final int MAX_HTML_CHARS = 2 * 1024 * 1024;
+
+    private final PageWatchdog watchdog;
+
+    @Value("${meeting.diagnostics.path:${meeting.transcript-path:/tmp/transcripts}/diagnostics}")
+    private String diagnosticsPath;
+
+    // Periodic debug snapshots during capture (failure snapshots are always taken)
+    @Value("${meeting.diagnostics.debug-snapshots:false}")
+    private boolean debugSnapshots;
+
+    @Value("${meeting.diagnostics.jpeg-quality:60}")
+    private int jpegQuality;
+
+    @Value("${meeting.diagnostics.max-bytes-per-meeting:5242880}")
+    private long maxBytesPerMeeting;
+
+    @Value("${meeting.diagnostics.max-total-bytes:209715200}")
+    private long maxTotalBytes;
+
+    @Value("${meeting.diagnostics.capture-timeout-ms:5000}")
+    private long captureTimeoutMs;
+
+    private final ThreadPoolExecutor writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(50), r -> {
+                Thread thread = new Thread(r, "diagnostics-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final AtomicLong captures = new AtomicLong();
+    private final AtomicLong captureMillis = new AtomicLong();
+    private final AtomicLong maxCaptureMillis = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong evictedFiles = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long diskBytes;
+
+    @PreDestroy
+    public void stop() {
+        writer.shutdown();
+    }
+
+    /**
+     * Snapshot of a page the join failed on; kept in preference to debug snapshots.
+     */
+    public void captureFailure(Page page, MeetingSession session, String label) {
+        capture(page, session, FAILURE_PREFIX + label, false);
+    }
+
+    /**
+     * Debug snapshot, only when meeting.diagnostics.debug-snapshots is on. withHtml also saves the page HTML (gzipped).
+     */
+    public void captureDebug(Page page, MeetingSession session, String label, boolean withHtml) {
+        if (debugSnapshots) {
+            capture(page, session, "debug_" + label, withHtml);
+        }
+    }
+
+    private void capture(Page page, MeetingSession session, String name, boolean withHtml) {
+        String uuid = session.getUuid();
+        long start = System.currentTimeMillis();
+        byte[] image;
+        String html = null;
+        try {
+            image = watchdog.call(uuid, "diagnostics-screenshot", captureTimeoutMs + 5000, () -> page.screenshot(
+                    new Page.ScreenshotOptions()
+                            .setType(ScreenshotType.JPEG)
+                            .setQuality(jpegQuality)
+                            .setTimeout(captureTimeoutMs)));
+            if (withHtml) {
+                html = watchdog.call(uuid, "diagnostics-html", page::content);
+            }
+        } catch (Exception e) {
+            log.warn("[{}] Could not capture {} snapshot: {}", uuid, name, e.getMessage());
+            return;
+        }
+        long elapsed = System.currentTimeMillis() - start;
+        captures.incrementAndGet();
+        captureMillis.addAndGet(elapsed);
+        maxCaptureMillis.accumulateAndGet(elapsed, Math::max);
+        MeetingMetrics metrics = session.getMetrics();
+        metrics.setDiagnosticSnapshots(metrics.getDiagnosticSnapshots() + 1);
+        metrics.setDiagnosticsCaptureMillis(metrics.getDiagnosticsCaptureMillis() + elapsed);
+
+        String baseName = name + "_" + System.currentTimeMillis();
+        String pageHtml = html;
+        try {
+            writer.execute(() -> write(uuid, baseName, image, pageHtml));
+        } catch (RejectedExecutionException e) {
+            dropped.incrementAndGet();
+            log.warn("[{}] Diagnostics writer is backed up, dropped {} snapshot", uuid, name);
+        }
+    }
+
+    private void write(String uuid, String baseName, byte[] image, String html) {
+        try {
+            Path dir = Paths.get(diagnosticsPath, uuid);
+            Files.createDirectories(dir);
+            Path imagePath = dir.resolve(baseName + ".jpg");
+            Files.write(imagePath, image);
+            long written = image.length;
+            if (html != null) {
+                Path htmlPath = dir.resolve(baseName + ".html.gz");
+                String trimmed = html.length() > MAX_HTML_CHARS ? html.substring(0, MAX_HTML_CHARS) : html;
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(htmlPath))) {
+                    out.write(trimmed.getBytes(StandardCharsets.UTF_8));
+                }
+                written += Files.size(htmlPath);
+            }
+            bytesWritten.addAndGet(written);
+            log.info("[{}] Diagnostics snapshot saved: {} ({} KB)", uuid, imagePath, written / 1024);
+
+            enforceBudget(dir, maxBytesPerMeeting);
+            enforceBudget(Paths.get(diagnosticsPath), maxTotalBytes);
+        } catch (IOException e) {
+            log.warn("[{}] Could not write diagnostics snapshot: {}", uuid, e.getMessage());
+        }
+    }
+
+    /**
+     * Delete files under dir, debug before failure and oldest first, until they fit in budget bytes.
+     */
+    private void enforceBudget(Path dir, long budget) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.filter(Files::isRegularFile).forEach(files::add);
+        }
+        long total = 0;
+        for (Path file : files) {
+            total += sizeOf(file);
+        }
+        if (dir.equals(Paths.get(diagnosticsPath))) {
+            diskBytes = total;
+        }
+        if (total <= budget) {
+            return;
+        }
+        files.sort(Comparator.comparing((Path p) -> p.getFileName().toString().startsWith(FAILURE_PREFIX))
+                .thenComparingLong(DiagnosticsCaptureService::modifiedAt));
+        for (Path file : files) {
+            if (total <= budget) {
+                break;
+            }
+            long size = sizeOf(file);
+            Files.deleteIfExists(file);
+            total -= size;
+            evictedFiles.incrementAndGet();
+            log.debug("Evicted diagnostics file {} ({} bytes)", file, size);
+        }
+        if (dir.equals(Paths.get(diagnosticsPath))) {
+            diskBytes = total;
+        }
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long modifiedAt(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long count = captures.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("debugSnapshots", debugSnapshots);
+        stats.put("captures", count);
+        stats.put("avgCaptureMillis", count > 0 ? captureMillis.get() / count : 0);
+        stats.put("maxCaptureMillis", maxCaptureMillis.get());
+        stats.put("bytesWritten", bytesWritten.get());
+        stats.put("diskBytes", diskBytes);
+        stats.put("maxTotalBytes", maxTotalBytes);
+        stats.put("evictedFiles", evictedFiles.get());
+        stats.put("dropped", dropped.get());
+        stats.put("queued", writer.getQueue().size());
+        return stats;
+    }
+}
@@ -0,0 +1,106 @@
+package com.transcriber.service;
+
+import com.transcriber.model.MeetingSession;
+import com.transcriber.model.PageState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Decides when a meeting is over for practical purposes even though its end time is still ahead:
+ * the bot has been left alone, nobody ever showed up, or no captions arrived for a long time.
+ * Leaving then frees the browser for other meetings instead of idling until the scheduled end.
+ */
+@Slf4j
+@Service
+public class IdleDetectionService {
+
+    @Value("${meeting.idle.enabled:true}")
+    private boolean enabled;
+
+    // How often the capture loop checks the page state for participants
+    @Value("${meeting.idle.check-interval-seconds:10}")
+    private int checkIntervalSeconds;
+
+    // Alone after others were there: leave once this has lasted this long
+    @Value("${meeting.idle.alone-grace-seconds:60}")
+    private int aloneGraceSeconds;
+
+    // Nobody else joined at all: leave after this long
+    @Value("${meeting.idle.empty-start-minutes:15}")
+    private int emptyStartMinutes;
+
+    // No caption activity for this long: leave (0 = never)
+    @Value("${meeting.idle.no-caption-minutes:20}")
+    private int noCaptionMinutes;
+
+    public Tracker track(MeetingSession session) {
+        return new Tracker(session.getUuid(), System.currentTimeMillis());
+    }
+
+    /**
+     * Idle state of one meeting's capture run. Used from the meeting thread only.
+     */
+    public class Tracker {
+        private final String uuid;
+        private final long startedAt;
+        private long lastCheck;
+        private long lastCaption;
+        private long aloneSince;
+        private boolean sawOthers;
+
+        private Tracker(String uuid, long startedAt) {
+            this.uuid = uuid;
+            this.startedAt = startedAt;
+            this.lastCaption = startedAt;
+        }
+
+        /**
+         * True when the page state should be checked again.
+         */
+        public boolean isCheckDue() {
+            return enabled && System.currentTimeMillis() - lastCheck >= checkIntervalSeconds * 1000L;
+        }
+
+        public void captionActivity() {
+            lastCaption = System.currentTimeMillis();
+        }
+
+        /**
+         * Feed a fresh page state; returns the reason to leave early, or null to stay.
+         */
+        public MeetingSession.EndReason check(PageState state) {
+            long now = System.currentTimeMillis();
+            lastCheck = now;
+
+            boolean alone = state.isAlone() || state.getParticipants() == 1;
+            if (state.getParticipants() > 1) {
+                sawOthers = true;
+            }
+            if (!alone) {
+                aloneSince = 0;
+            } else if (aloneSince == 0) {
+                aloneSince = now;
+                log.info("[{}] Bot appears to be alone in the meeting (participants: {})", uuid, state.getParticipants());
+            }
+
+            if (aloneSince > 0) {
+                long aloneFor = now - aloneSince;
+                if (sawOthers && aloneFor >= aloneGraceSeconds * 1000L) {
+                    log.info("[{}] Everyone else left {} s ago, leaving early", uuid, aloneFor / 1000);
+                    return MeetingSession.EndReason.ALONE;
+                }
+                if (!sawOthers && now - startedAt >= emptyStartMinutes * 60000L) {
+                    log.info("[{}] Nobody joined within {} minutes, leaving early", uuid, emptyStartMinutes);
+                    return MeetingSession.EndReason.ALONE;
+                }
+            }
+
+            if (noCaptionMinutes > 0 && now - lastCaption >= noCaptionMinutes * 60000L) {
+                log.info("[{}] No caption activity for {} minutes, leaving early", uuid, noCaptionMinutes);
+                return MeetingSession.EndReason.IDLE;
+            }
+            return null;
+        }
+    }
+}
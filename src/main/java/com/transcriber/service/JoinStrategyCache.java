@@ -0,0 +1,177 @@
+package com.transcriber.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers which join-button strategy worked, per meeting URL and per detected pre-join UI
+ * variant, so the next join tries it first instead of walking every selector. Entries are
+ * stored under playwright.user-data-dir so recurring meetings benefit across restarts and
+ * worker processes; an entry that stops working is dropped. The file is shared by the main
+ * service and its workers, so each save merges this process's change into the file's current
+ * contents under a file lock instead of overwriting them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JoinStrategyCache {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${playwright.user-data-dir:/tmp/playwright-data}")
+    private String userDataDir;
+
+    @Value("${playwright.join-strategy.enabled:true}")
+    private boolean enabled;
+
+    private Path file;
+    // "url:<host/path>" or "variant:<signature>" -> strategy id
+    private final ConcurrentHashMap<String, String> strategies = new ConcurrentHashMap<>();
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong stale = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        file = Paths.get(userDataDir, "join-strategies.json");
+        if (!enabled || !Files.exists(file)) {
+            return;
+        }
+        try {
+            strategies.putAll(objectMapper.readValue(file.toFile(), new TypeReference<Map<String, String>>() {}));
+            log.info("Loaded {} join strategies from {}", strategies.size(), file);
+        } catch (IOException e) {
+            log.warn("Could not read join strategies {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Strategy that worked last time for this meeting URL, else for this UI variant, or null.
+     */
+    public String lookup(String meetUrl, String variant) {
+        if (!enabled) {
+            return null;
+        }
+        lookups.incrementAndGet();
+        String strategy = strategies.get(urlKey(meetUrl));
+        if (strategy == null && variant != null) {
+            strategy = strategies.get("variant:" + variant);
+        }
+        if (strategy == null) {
+            misses.incrementAndGet();
+        }
+        return strategy;
+    }
+
+    /**
+     * Record the strategy that got us in. fromCache: it was the one returned by {@link #lookup}.
+     */
+    public void learned(String uuid, String meetUrl, String variant, String strategy, boolean fromCache) {
+        if (!enabled) {
+            return;
+        }
+        if (fromCache) {
+            hits.incrementAndGet();
+        }
+        Map<String, String> learned = new LinkedHashMap<>();
+        learned.put(urlKey(meetUrl), strategy);
+        if (variant != null) {
+            learned.put("variant:" + variant, strategy);
+        }
+        boolean changed = false;
+        for (Map.Entry<String, String> entry : learned.entrySet()) {
+            changed |= !strategy.equals(strategies.put(entry.getKey(), entry.getValue()));
+        }
+        if (changed) {
+            log.info("[{}] Learned join strategy '{}' (variant {})", uuid, strategy, variant);
+            save(learned, Map.of());
+        }
+    }
+
+    /**
+     * The cached strategy did not work this time; forget it for this URL and variant.
+     */
+    public void invalidate(String uuid, String meetUrl, String variant, String strategy) {
+        stale.incrementAndGet();
+        Map<String, String> forgotten = new LinkedHashMap<>();
+        forgotten.put(urlKey(meetUrl), strategy);
+        if (variant != null) {
+            forgotten.put("variant:" + variant, strategy);
+        }
+        forgotten.forEach(strategies::remove);
+        log.info("[{}] Cached join strategy '{}' did not work, falling back to full search", uuid, strategy);
+        save(Map.of(), forgotten);
+    }
+
+    private String urlKey(String meetUrl) {
+        try {
+            URI uri = URI.create(meetUrl);
+            return "url:" + (uri.getHost() + uri.getPath()).toLowerCase(Locale.ROOT);
+        } catch (Exception e) {
+            return "url:" + meetUrl;
+        }
+    }
+
+    /**
+     * Apply learned entries and remove forgotten ones (only where they still hold the forgotten strategy) in the
+     * file as other processes left it, then take the merged result as this process's view too.
+     */
+    private synchronized void save(Map<String, String> learned, Map<String, String> forgotten) {
+        try {
+            Files.createDirectories(file.getParent());
+            Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                // Held until the channel is closed
+                channel.lock();
+                Map<String, String> merged = new LinkedHashMap<>();
+                if (Files.exists(file)) {
+                    merged.putAll(objectMapper.readValue(file.toFile(), new TypeReference<Map<String, String>>() {}));
+                }
+                merged.putAll(learned);
+                forgotten.forEach(merged::remove);
+
+                Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+                objectMapper.writeValue(tmp.toFile(), merged);
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+                strategies.keySet().retainAll(merged.keySet());
+                strategies.putAll(merged);
+            }
+        } catch (IOException e) {
+            log.warn("Could not save join strategies: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long total = lookups.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("entries", strategies.size());
+        stats.put("lookups", total);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("stale", stale.get());
+        stats.put("hitRate", total > 0 ? (double) hits.get() / total : 0.0);
+        return stats;
+    }
+}
@@ -0,0 +1,208 @@
+package com.transcriber.service;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.CDPSession;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import com.transcriber.model.MeetingSession;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Compares Chromium launch profiles on this host: time from launch until the Meet pre-join
+ * screen is usable, and the browser's RSS once the page has settled. Each profile gets a
+ * fresh browser outside the pool and a cold context with the same options and request
+ * filtering as a real meeting. On the settled page it also times one caption probe tick
+ * sent as the full script versus a call to the installed probe. Optionally it compares
+ * renderer CPU of the page with and without the captions-only init script, each in a fresh
+ * context; the page is not joined, so this shows the script's overhead and the pre-join
+ * preview only (in-meeting figures by mode are under rendererCpu in the metrics).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LaunchBenchmarkService {
+
+    private static final long PREJOIN_TIMEOUT_MS = 30000;
+    private static final int PROBE_TICKS = 50;
+    private static final String DRIVER_LABEL = "driver:benchmark";
+
+    private final BrowserPoolService browserPool;
+    private final NetworkFilterService networkFilter;
+    private final SelectorRegistryService selectorRegistry;
+    private final ProcessRegistry processRegistry;
+
+    private volatile List<Map<String, Object>> lastResults = List.of();
+
+    /**
+     * Run the benchmark for the given profiles (all profiles if empty), one after another.
+     */
+    public synchronized List<Map<String, Object>> run(String meetUrl, List<String> profiles, int settleSeconds,
+                                                      boolean compareCaptionsOnly) {
+        List<String> names = profiles == null || profiles.isEmpty()
+                ? BrowserPoolService.LAUNCH_PROFILES.keySet().stream().sorted().toList()
+                : profiles;
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (String profile : names) {
+            results.add(runProfile(meetUrl, profile, settleSeconds, compareCaptionsOnly));
+        }
+        lastResults = results;
+        return results;
+    }
+
+    private Map<String, Object> runProfile(String meetUrl, String profile, int settleSeconds, boolean compareCaptionsOnly) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("profile", profile);
+        long start = System.currentTimeMillis();
+        Set<Long> driverPids = new HashSet<>();
+        try (BrowserPoolService.Standalone standalone = browserPool.launchStandalone(profile);
+             Playwright playwright = createDriver(driverPids)) {
+            result.put("launchMillis", System.currentTimeMillis() - start);
+
+            Browser browser = playwright.chromium().connectOverCDP(standalone.getEndpoint());
+            BrowserContext context = browser.newContext(PlaywrightService.meetingContextOptions());
+            MeetingSession session = MeetingSession.builder()
+                    .uuid("benchmark-" + profile)
+                    .meetUrl(meetUrl)
+                    .build();
+            networkFilter.install(context, session);
+            Page page = context.newPage();
+            page.navigate(meetUrl, new Page.NavigateOptions().setTimeout(60000));
+            boolean ready;
+            try {
+                page.waitForFunction(PlaywrightService.PREJOIN_READY_JS, null,
+                        new Page.WaitForFunctionOptions().setTimeout(PREJOIN_TIMEOUT_MS).setPollingInterval(100));
+                ready = true;
+            } catch (Exception e) {
+                ready = false;
+            }
+            result.put("prejoinReady", ready);
+            result.put("launchToPrejoinMillis", System.currentTimeMillis() - start);
+
+            // Steady state: let the page settle, then measure the whole browser process tree
+            page.waitForTimeout(settleSeconds * 1000L);
+            Set<Long> pids = new HashSet<>();
+            pids.add(standalone.getPid());
+            ProcessHandle.of(standalone.getPid()).ifPresent(ph -> ph.descendants().forEach(d -> pids.add(d.pid())));
+            result.put("processes", pids.size());
+            result.put("steadyRssMb", pids.stream().mapToLong(ProcessRegistry::rssBytes).sum() / (1024 * 1024));
+
+            // Per-tick probe cost: the whole script re-sent and compiled vs the installed probe called by name
+            result.put("probeFullScriptMicros", probeTickMicros(page, selectorRegistry.getStandaloneProbeScript()));
+            page.evaluate(selectorRegistry.getProbeScript());
+            result.put("probeInstalledMicros", probeTickMicros(page, selectorRegistry.getProbeTickScript()));
+
+            context.close();
+
+            if (compareCaptionsOnly) {
+                Map<String, Object> cpu = new LinkedHashMap<>();
+                cpu.put("fullVideo", settledCpu(browser, session, standalone.getPid(), settleSeconds, false));
+                cpu.put("captionsOnly", settledCpu(browser, session, standalone.getPid(), settleSeconds, true));
+                result.put("captionsOnlyCpu", cpu);
+            }
+            browser.close();
+        } catch (Exception e) {
+            log.warn("Launch benchmark for profile {} failed: {}", profile, e.getMessage());
+            result.put("error", e.getMessage());
+        } finally {
+            // If the Node.js process survived close(), the reaper picks it up as an orphan
+            driverPids.forEach(pid -> processRegistry.unregisterRoot(pid, DRIVER_LABEL));
+        }
+        log.info("Launch benchmark: {}", result);
+        return result;
+    }
+
+    /**
+     * Renderer task time (CDP) and browser process tree CPU (/proc) of a fresh page over the settle period.
+     */
+    private Map<String, Object> settledCpu(Browser browser, MeetingSession session, long browserPid,
+                                           int settleSeconds, boolean captionsOnly) {
+        BrowserContext context = browser.newContext(PlaywrightService.meetingContextOptions());
+        try {
+            networkFilter.install(context, session);
+            Page page = context.newPage();
+            if (captionsOnly) {
+                page.addInitScript(PlaywrightService.CAPTIONS_ONLY_SCRIPT);
+            }
+            CDPSession cdp = context.newCDPSession(page);
+            cdp.send("Performance.enable");
+            page.navigate(session.getMeetUrl(), new Page.NavigateOptions().setTimeout(60000));
+
+            double taskBefore = taskSeconds(cdp);
+            double cpuBefore = treeCpuSeconds(browserPid);
+            long start = System.nanoTime();
+            page.waitForTimeout(settleSeconds * 1000L);
+            double wallSeconds = (System.nanoTime() - start) / 1e9;
+            double taskSeconds = taskSeconds(cdp) - taskBefore;
+            double cpuSeconds = treeCpuSeconds(browserPid) - cpuBefore;
+
+            Map<String, Object> cpu = new LinkedHashMap<>();
+            cpu.put("rendererTaskSeconds", Math.round(taskSeconds * 100) / 100.0);
+            cpu.put("rendererCpuPercent", Math.round(taskSeconds * 1000 / wallSeconds) / 10.0);
+            cpu.put("browserCpuPercent", Math.round(cpuSeconds * 1000 / wallSeconds) / 10.0);
+            return cpu;
+        } catch (Exception e) {
+            return Map.of("error", String.valueOf(e.getMessage()));
+        } finally {
+            context.close();
+        }
+    }
+
+    private static double taskSeconds(CDPSession cdp) {
+        for (JsonElement metric : cdp.send("Performance.getMetrics").getAsJsonArray("metrics")) {
+            JsonObject m = metric.getAsJsonObject();
+            if ("TaskDuration".equals(m.get("name").getAsString())) {
+                return m.get("value").getAsDouble();
+            }
+        }
+        return 0;
+    }
+
+    private static double treeCpuSeconds(long pid) {
+        return ProcessHandle.of(pid)
+                .map(ph -> ProcessRegistry.cpuSeconds(pid)
+                        + ph.descendants().mapToDouble(d -> ProcessRegistry.cpuSeconds(d.pid())).sum())
+                .orElse(0.0);
+    }
+
+    // Same as PlaywrightDriverCache: spawn under the lock and register the new driver process as a root
+    private Playwright createDriver(Set<Long> driverPids) {
+        synchronized (ProcessRegistry.SPAWN_LOCK) {
+            Set<Long> before = ProcessHandle.current().children().map(ProcessHandle::pid).collect(Collectors.toSet());
+            Playwright playwright = Playwright.create();
+            ProcessHandle.current().children()
+                    .filter(ph -> !before.contains(ph.pid()))
+                    .filter(ProcessRegistry::isPlaywrightDriver)
+                    .forEach(ph -> {
+                        driverPids.add(ph.pid());
+                        processRegistry.registerRoot(ph, DRIVER_LABEL);
+                    });
+            return playwright;
+        }
+    }
+
+    private static long probeTickMicros(Page page, String script) {
+        page.evaluate(script);
+        long start = System.nanoTime();
+        for (int i = 0; i < PROBE_TICKS; i++) {
+            page.evaluate(script);
+        }
+        return (System.nanoTime() - start) / PROBE_TICKS / 1000;
+    }
+
+    public List<Map<String, Object>> getLastResults() {
+        return lastResults;
+    }
+}
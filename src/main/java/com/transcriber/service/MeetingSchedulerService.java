@@ -4,13 +4,16 @@ import com.transcriber.model.MeetingRequest;
 import com.transcriber.model.MeetingSession;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.scheduling.TaskScheduler;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
 
@@ -20,9 +23,21 @@ import java.util.concurrent.ScheduledFuture;
 public class MeetingSchedulerService {
 
     private final TaskScheduler taskScheduler;
+    private final ThreadPoolTaskExecutor meetingTaskExecutor;
+    private final AdmissionControlService admissionControl;
     private final PlaywrightService playwrightService;
     private final TranscriptService transcriptService;
     private final CallbackService callbackService;
+    private final WorkerProcessService workerProcessService;
+    private final ResourceSampler resourceSampler;
+
+    // Launch the browser and open the pre-join page this long before the start time
+    @Value("${meeting.warmup-lead-seconds:45}")
+    private int warmupLeadSeconds;
+
+    // How often a meeting waiting for host headroom asks admission control again
+    @Value("${meeting.admission-control.recheck-seconds:5}")
+    private int admissionRecheckSeconds;
 
     // Track scheduled meetings
     private final ConcurrentHashMap<String, MeetingSession> activeSessions = new ConcurrentHashMap<>();
@@ -30,7 +45,7 @@ public class MeetingSchedulerService {
 
     /**
      * Schedule a new meeting
-     * The bot will join ONLY at the specified start time, not immediately
+     * The browser is warmed up ahead of time, but the bot clicks join ONLY at the specified start time
      */
     public MeetingSession scheduleMeeting(MeetingRequest request) {
         String uuid = request.getUuid();
@@ -71,23 +86,24 @@ public class MeetingSchedulerService {
 
         activeSessions.put(uuid, session);
 
-        // Calculate time until start
+        // Calculate time until warm-up (browser launch + pre-join page ahead of start time)
         Instant startInstant = startTime.toInstant();
-        long secondsUntilStart = java.time.Duration.between(Instant.now(), startInstant).getSeconds();
+        Instant warmupInstant = startInstant.minusSeconds(warmupLeadSeconds);
+        long secondsUntilWarmup = java.time.Duration.between(Instant.now(), warmupInstant).getSeconds();
         
-        if (secondsUntilStart <= 0) {
-            // Start time is now (within grace period) - start immediately
-            log.info("[{}] Start time is now, joining meeting immediately", uuid);
-            executeMeetingAsync(session);
+        if (secondsUntilWarmup <= 0) {
+            // Within the warm-up window - start preparing immediately
+            log.info("[{}] Start time is within {} seconds, preparing meeting immediately", uuid, warmupLeadSeconds);
+            startWhenAdmitted(session, false);
         } else {
-            // Schedule for future start time
-            log.info("[{}] Meeting scheduled to start at: {} (in {} seconds)", 
-                    uuid, startTime, secondsUntilStart);
+            // Schedule warm-up ahead of the future start time
+            log.info("[{}] Meeting scheduled to start at: {} (warm-up in {} seconds)", 
+                    uuid, startTime, secondsUntilWarmup);
             log.info("[{}] Meeting will end at: {}", uuid, endTime);
             
             ScheduledFuture<?> future = taskScheduler.schedule(
-                    () -> executeMeetingAsync(session),
-                    startInstant
+                    () -> startWhenAdmitted(session, true),
+                    warmupInstant
             );
             scheduledTasks.put(uuid, future);
         }
@@ -96,16 +112,64 @@ public class MeetingSchedulerService {
     }
 
     /**
-     * Execute meeting asynchronously
+     * Hand the meeting to the meeting executor once admission control finds headroom for it; until
+     * then re-check every few seconds. A meeting that never fits is rejected (with an error callback
+     * unless the rejection is reported straight back to the caller of scheduleMeeting).
+     */
+    private void startWhenAdmitted(MeetingSession session, boolean notifyOnReject) {
+        String uuid = session.getUuid();
+        if (session.getStatus() == MeetingSession.MeetingStatus.CANCELLED) {
+            return;
+        }
+        switch (admissionControl.decide(uuid)) {
+            case START -> {
+                try {
+                    meetingTaskExecutor.execute(() -> executeMeeting(session));
+                } catch (TaskRejectedException e) {
+                    admissionControl.release(uuid);
+                    reject(session, "meeting executor is full", notifyOnReject);
+                }
+            }
+            case WAIT -> scheduledTasks.put(uuid, taskScheduler.schedule(
+                    () -> startWhenAdmitted(session, true),
+                    Instant.now().plusSeconds(admissionRecheckSeconds)));
+            case REJECT -> reject(session, admissionControl.getLastBlocker(), notifyOnReject);
+        }
+    }
+
+    private void reject(MeetingSession session, String reason, boolean notify) {
+        String message = "Rejected: not enough host capacity to run the meeting (" + reason + ")";
+        session.setStatus(MeetingSession.MeetingStatus.REJECTED);
+        session.setErrorMessage(message);
+        activeSessions.remove(session.getUuid());
+        scheduledTasks.remove(session.getUuid());
+        if (notify) {
+            callbackService.sendErrorCallback(session, message);
+        }
+    }
+
+    /**
+     * Run the meeting on a meeting executor thread; holds the admission slot until it is done.
      */
-    @Async("meetingTaskExecutor")
-    public void executeMeetingAsync(MeetingSession session) {
+    private void executeMeeting(MeetingSession session) {
         String uuid = session.getUuid();
         log.info("[{}] Executing meeting task", uuid);
 
         try {
-            // Join meeting and capture transcripts
-            playwrightService.joinMeetingAndCapture(session);
+            if (session.getStatus() == MeetingSession.MeetingStatus.CANCELLED) {
+                return;
+            }
+            // Join meeting and capture transcripts, in a worker process if configured
+            if (workerProcessService.isEnabled()) {
+                workerProcessService.runMeeting(session);
+            } else {
+                playwrightService.joinMeetingAndCapture(session);
+            }
+            resourceSampler.recordRendererCpu(session.getMetrics());
+            if (session.getStatus() == MeetingSession.MeetingStatus.CANCELLED && session.getTranscripts().isEmpty()) {
+                log.info("[{}] Meeting was cancelled before anything was captured", uuid);
+                return;
+            }
 
             // Save transcripts in all formats (JSON, TXT, CSV)
             // Returns path to the primary JSON file
@@ -116,12 +180,17 @@ public class MeetingSchedulerService {
             callbackService.sendCallback(session, transcriptPath);
 
         } catch (Exception e) {
+            if (session.getStatus() == MeetingSession.MeetingStatus.CANCELLED) {
+                log.info("[{}] Cancelled meeting ended with: {}", uuid, e.getMessage());
+                return;
+            }
             log.error("[{}] Meeting execution failed: {}", uuid, e.getMessage(), e);
             session.setStatus(MeetingSession.MeetingStatus.FAILED);
             session.setErrorMessage(e.getMessage());
             callbackService.sendErrorCallback(session, e.getMessage());
         } finally {
             // Cleanup
+            admissionControl.release(uuid);
             activeSessions.remove(uuid);
             scheduledTasks.remove(uuid);
         }
@@ -142,12 +211,15 @@ public class MeetingSchedulerService {
             future.cancel(false);
         }
 
-        // If meeting is in progress, signal to stop
-        if (session.getStatus() == MeetingSession.MeetingStatus.IN_PROGRESS) {
-            playwrightService.stopCapturing(uuid);
-        }
-
+        // Mark it cancelled before signalling, so the meeting thread sees why it was stopped; a
+        // meeting thread that starts after this sees the status instead of a stop signal
         session.setStatus(MeetingSession.MeetingStatus.CANCELLED);
+
+        // If meeting is warming up or in progress, signal to stop (no-op if it has not started)
+        playwrightService.stopCapturing(uuid);
+        workerProcessService.stop(uuid);
+
+        admissionControl.forget(uuid);
         activeSessions.remove(uuid);
         scheduledTasks.remove(uuid);
 
@@ -162,6 +234,13 @@ public class MeetingSchedulerService {
         return activeSessions.get(uuid);
     }
 
+    /**
+     * Meetings scheduled or running
+     */
+    public Collection<MeetingSession> getActiveSessions() {
+        return activeSessions.values();
+    }
+
     /**
      * Get count of active meetings
      */
@@ -0,0 +1,218 @@
+package com.transcriber.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transcriber.model.CaptionEvent;
+import com.transcriber.model.MeetingMetrics;
+import com.transcriber.model.MeetingSession;
+import com.transcriber.model.ResourceSample;
+import com.transcriber.model.TranscriptEntry;
+import com.transcriber.model.WorkerMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry point of a meeting worker process (started by WorkerProcessService). Connects back
+ * to the main service, runs one meeting in-process and streams its progress, then exits.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "meeting.worker.child", havingValue = "true")
+public class MeetingWorkerRunner implements ApplicationRunner {
+
+    private final PlaywrightService playwrightService;
+    private final ObjectMapper objectMapper;
+    private final ConfigurableApplicationContext applicationContext;
+
+    @Value("${meeting.worker.port}")
+    private int port;
+
+    @Value("${meeting.worker.token}")
+    private String token;
+
+    private PrintWriter out;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        int exitCode = 0;
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            send(WorkerMessage.builder().type(WorkerMessage.HELLO).token(token).build());
+
+            WorkerMessage start = objectMapper.readValue(in.readLine(), WorkerMessage.class);
+            MeetingSession session = MeetingSession.builder()
+                    .uuid(start.getUuid())
+                    .meetUrl(start.getMeetUrl())
+                    .startTime(ZonedDateTime.parse(start.getStartTime()))
+                    .endTime(ZonedDateTime.parse(start.getEndTime()))
+                    .callbackUrl(start.getCallbackUrl())
+                    .status(MeetingSession.MeetingStatus.SCHEDULED)
+                    .build();
+            runMeeting(session, in);
+        } catch (Exception e) {
+            log.error("Meeting worker failed: {}", e.getMessage(), e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(applicationContext, () -> code));
+    }
+
+    private void runMeeting(MeetingSession session, BufferedReader in) {
+        String uuid = session.getUuid();
+        log.info("[{}] Worker process running meeting", uuid);
+        Progress progress = new Progress();
+
+        // Commands from the main service (stop) arrive while the meeting runs
+        Thread commandReader = new Thread(() -> {
+            try {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (WorkerMessage.STOP.equals(objectMapper.readValue(line, WorkerMessage.class).getType())) {
+                        progress.stopRequested = true;
+                        playwrightService.stopCapturing(uuid);
+                    }
+                }
+            } catch (IOException e) {
+                log.debug("[{}] Worker command channel closed: {}", uuid, e.getMessage());
+            }
+        }, "worker-commands");
+        commandReader.setDaemon(true);
+        commandReader.start();
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        reporter.scheduleWithFixedDelay(() -> {
+            if (progress.stopRequested) {
+                // Stop may arrive before capture registered its stop flag; repeat until it sticks
+                playwrightService.stopCapturing(uuid);
+            }
+            report(session, progress, WorkerMessage.STATUS);
+        }, 1, 1, TimeUnit.SECONDS);
+
+        // Caption events go out as they are applied, so the main service keeps them if this process dies mid-run
+        playwrightService.setCaptionListener(uuid, this::sendCaptionEvent);
+        // A saved run's entries go out right away, marked so the main service drops that run's events
+        playwrightService.setRunSavedListener(uuid, run -> {
+            progress.savedRun = run;
+            report(session, progress, WorkerMessage.STATUS);
+        });
+        try {
+            playwrightService.joinMeetingAndCapture(session);
+        } finally {
+            playwrightService.removeCaptionListener(uuid);
+            playwrightService.removeRunSavedListener(uuid);
+            reporter.shutdownNow();
+            report(session, progress, WorkerMessage.DONE);
+        }
+    }
+
+    private void sendCaptionEvent(CaptionEvent event) {
+        send(WorkerMessage.builder()
+                .type(WorkerMessage.EVENTS)
+                .events(List.of(event))
+                .sentNanos(System.nanoTime())
+                .build());
+    }
+
+    /**
+     * Send status changes and any transcript entries captured since the last report.
+     */
+    private synchronized void report(MeetingSession session, Progress progress, String type) {
+        // Read before the entries: a run's entries are all added before the re-join that starts the next run
+        int captionRun = session.getMetrics().getRejoins();
+        List<TranscriptEntry> transcripts = session.getTranscripts();
+        int savedRun = progress.savedRun;
+        int size = transcripts.size();
+        if (size > progress.sentEntries || captionRun != progress.sentRun || savedRun != progress.sentSavedRun) {
+            boolean sent = send(WorkerMessage.builder()
+                    .type(WorkerMessage.CAPTIONS)
+                    .entries(List.copyOf(transcripts.subList(progress.sentEntries, size)))
+                    .captionRun(captionRun)
+                    .parsedRun(savedRun != progress.sentSavedRun ? savedRun : null)
+                    .build());
+            if (sent) {
+                progress.sentEntries = size;
+                progress.sentRun = captionRun;
+                progress.sentSavedRun = savedRun;
+            }
+        }
+
+        MeetingSession.MeetingStatus status = session.getStatus();
+        int samples = session.getResourceSamples().size();
+        ResourceSample lastSample = samples > 0 ? session.getResourceSamples().get(samples - 1) : null;
+        if (WorkerMessage.DONE.equals(type) || status != progress.sentStatus || lastSample != progress.sentSample) {
+            boolean sent = send(WorkerMessage.builder()
+                    .type(type)
+                    .status(status.name())
+                    .metrics(snapshot(session.getMetrics()))
+                    .gaps(List.copyOf(session.getGaps()))
+                    .resourceSamples(List.copyOf(session.getResourceSamples()))
+                    .errorMessage(session.getErrorMessage())
+                    .endReason(session.getEndReason() != null ? session.getEndReason().name() : null)
+                    .build());
+            if (sent) {
+                progress.sentStatus = status;
+                progress.sentSample = lastSample;
+            }
+        }
+    }
+
+    /**
+     * Copy of the metrics the meeting thread keeps updating, taken with their maps locked.
+     */
+    private MeetingMetrics snapshot(MeetingMetrics metrics) {
+        synchronized (metrics.getJoinPhaseMs()) {
+            synchronized (metrics.getPageCallsPerSecond()) {
+                return objectMapper.convertValue(metrics, MeetingMetrics.class);
+            }
+        }
+    }
+
+    /**
+     * Send one message; false if it could not be written, so it is sent again with the next report.
+     */
+    private boolean send(WorkerMessage message) {
+        try {
+            out.println(objectMapper.writeValueAsString(message));
+        } catch (IOException e) {
+            log.warn("Could not send {} to main service: {}", message.getType(), e.getMessage());
+            return false;
+        }
+        if (out.checkError()) {
+            log.warn("Could not send {} to main service: connection failed", message.getType());
+            return false;
+        }
+        return true;
+    }
+
+    private static class Progress {
+        private int sentEntries;
+        private int sentRun;
+        // Last capture run whose entries were all saved, and the last one reported as such
+        private volatile int savedRun = -1;
+        private int sentSavedRun = -1;
+        private MeetingSession.MeetingStatus sentStatus;
+        private ResourceSample sentSample;
+        private volatile boolean stopRequested;
+    }
+}
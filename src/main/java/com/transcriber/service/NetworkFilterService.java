@@ -0,0 +1,74 @@
+package com.transcriber.service;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Route;
+import com.transcriber.model.MeetingMetrics;
+import com.transcriber.model.MeetingSession;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Request routing for meeting contexts. Drops resources the capture loop never uses
+ * (images, fonts, avatars) and stubs telemetry beacons, counting blocked vs passed
+ * requests per meeting.
+ */
+@Slf4j
+@Service
+public class NetworkFilterService {
+
+    @Value("${playwright.network.filter-enabled:true}")
+    private boolean enabled;
+
+    // Playwright resource types, e.g. image, font, media, stylesheet
+    @Value("${playwright.network.blocked-resource-types:image,font,media}")
+    private List<String> blockedResourceTypes;
+
+    // URL substrings answered with an empty 204 instead of going to the network
+    @Value("${playwright.network.blocked-url-patterns:play.google.com/log,/gen_204,/jserror,google-analytics.com,googletagmanager.com}")
+    private List<String> blockedUrlPatterns;
+
+    // URL substrings that always pass, even if their resource type is blocked
+    @Value("${playwright.network.allowed-url-patterns:}")
+    private List<String> allowedUrlPatterns;
+
+    /**
+     * Install the filter on a meeting's context. Must be called on the meeting thread,
+     * which also services the route callbacks.
+     */
+    public void install(BrowserContext context, MeetingSession session) {
+        if (!enabled) {
+            return;
+        }
+        MeetingMetrics metrics = session.getMetrics();
+        context.route("**/*", route -> {
+            String url = route.request().url();
+            if (matchesAny(url, allowedUrlPatterns)) {
+                metrics.setPassedRequests(metrics.getPassedRequests() + 1);
+                route.resume();
+            } else if (matchesAny(url, blockedUrlPatterns)) {
+                metrics.setBlockedRequests(metrics.getBlockedRequests() + 1);
+                route.fulfill(new Route.FulfillOptions().setStatus(204));
+            } else if (blockedResourceTypes.contains(route.request().resourceType())) {
+                metrics.setBlockedRequests(metrics.getBlockedRequests() + 1);
+                route.abort("blockedbyclient");
+            } else {
+                metrics.setPassedRequests(metrics.getPassedRequests() + 1);
+                route.resume();
+            }
+        });
+        log.info("[{}] Network filter installed (blocked types: {}, blocked patterns: {})",
+                session.getUuid(), blockedResourceTypes, blockedUrlPatterns.size());
+    }
+
+    private boolean matchesAny(String url, List<String> patterns) {
+        for (String pattern : patterns) {
+            if (!pattern.isBlank() && url.contains(pattern)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,215 @@
+package com.transcriber.service;
+
+import com.transcriber.model.MeetingMetrics;
+import com.transcriber.model.MeetingSession;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Gives every page interaction of a meeting a time budget. Playwright's evaluate and
+ * locator.count() have no deadline of their own, so a hung renderer would block the
+ * meeting thread forever. When a call overruns its budget the watchdog closes the page's
+ * CDP target from its own thread (Playwright objects are thread-bound, the browser's HTTP
+ * endpoint is not), which makes the stuck call fail. If that does not help, the page's renderer
+ * is crashed with the CDP Page.crash command. The pooled browser is shared, so the watchdog never
+ * kills renderer processes by pid: which target a renderer serves is not known outside Chromium.
+ */
+@Slf4j
+@Service
+public class PageWatchdog {
+
+    @Value("${playwright.watchdog.call-budget-ms:15000}")
+    private long defaultBudgetMs;
+
+    // Calls slower than this count as slow even if they finish within budget
+    @Value("${playwright.watchdog.slow-call-ms:2000}")
+    private long slowCallMs;
+
+    private final ConcurrentHashMap<String, Watched> watched = new ConcurrentHashMap<>();
+    private final AtomicLong totalStalls = new AtomicLong();
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "page-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void start() {
+        ticker.scheduleWithFixedDelay(this::checkDeadlines, 250, 250, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+    }
+
+    /**
+     * Start watching a meeting's page. cdpEndpoint/targetId identify the page on its browser.
+     */
+    public void watch(MeetingSession session, String cdpEndpoint, String targetId) {
+        watched.put(session.getUuid(), new Watched(session.getUuid(), session.getMetrics(), cdpEndpoint, targetId));
+    }
+
+    public void unwatch(String uuid) {
+        watched.remove(uuid);
+    }
+
+    /**
+     * True if the watchdog had to abort this meeting's page; the page is unusable afterwards.
+     */
+    public boolean isAborted(String uuid) {
+        Watched w = watched.get(uuid);
+        return w != null && w.aborted;
+    }
+
+    public <T> T call(String uuid, String operation, Supplier<T> action) {
+        return call(uuid, operation, defaultBudgetMs, action);
+    }
+
+    /**
+     * Run a page interaction on the calling (meeting) thread with a deadline.
+     */
+    public <T> T call(String uuid, String operation, long budgetMs, Supplier<T> action) {
+        Watched w = watched.get(uuid);
+        if (w == null) {
+            return action.get();
+        }
+
+        InFlight previous = w.current;
+        InFlight call = new InFlight(operation, System.currentTimeMillis(), budgetMs);
+        w.current = call;
+        try {
+            return action.get();
+        } finally {
+            w.current = previous;
+            long elapsed = System.currentTimeMillis() - call.startedAt;
+            MeetingMetrics metrics = w.metrics;
+            metrics.setWatchedCalls(metrics.getWatchedCalls() + 1);
+            metrics.setMaxCallMillis(Math.max(metrics.getMaxCallMillis(), elapsed));
+            if (call.expired) {
+                metrics.setStalledCalls(metrics.getStalledCalls() + 1);
+            } else if (elapsed > slowCallMs) {
+                metrics.setSlowCalls(metrics.getSlowCalls() + 1);
+                log.debug("[{}] Slow page call '{}': {} ms", uuid, operation, elapsed);
+            }
+        }
+    }
+
+    public void run(String uuid, String operation, Runnable action) {
+        call(uuid, operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private void checkDeadlines() {
+        long now = System.currentTimeMillis();
+        for (Watched w : watched.values()) {
+            InFlight call = w.current;
+            if (call == null) {
+                continue;
+            }
+            long elapsed = now - call.startedAt;
+            if (!call.expired && elapsed > call.budgetMs) {
+                call.expired = true;
+                w.aborted = true;
+                totalStalls.incrementAndGet();
+                log.warn("[{}] Page call '{}' stalled for {} ms (budget {} ms), closing page target",
+                        w.uuid, call.operation, elapsed, call.budgetMs);
+                closeTarget(w);
+            } else if (call.expired && !call.crashed && elapsed > call.budgetMs * 2) {
+                // Closing the target did not unblock the call: the renderer is wedged
+                call.crashed = true;
+                log.warn("[{}] Page call '{}' still blocked after target close, crashing its renderer",
+                        w.uuid, call.operation);
+                crashTarget(w);
+            }
+        }
+    }
+
+    private void closeTarget(Watched w) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(w.cdpEndpoint + "/json/close/" + w.targetId))
+                    .timeout(Duration.ofSeconds(5))
+                    .GET()
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            log.info("[{}] Close target response: {} {}", w.uuid, response.statusCode(), response.body().trim());
+        } catch (Exception e) {
+            log.warn("[{}] Could not close page target: {}", w.uuid, e.getMessage());
+        }
+    }
+
+    // Page.crash goes to the page's own DevTools socket, so only this target's renderer is hit
+    private void crashTarget(Watched w) {
+        String url = w.cdpEndpoint.replaceFirst("^http", "ws") + "/devtools/page/" + w.targetId;
+        try {
+            WebSocket socket = httpClient.newWebSocketBuilder()
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .buildAsync(URI.create(url), new WebSocket.Listener() { })
+                    .get(5, TimeUnit.SECONDS);
+            socket.sendText("{\"id\":1,\"method\":\"Page.crash\"}", true).get(5, TimeUnit.SECONDS);
+            socket.sendClose(WebSocket.NORMAL_CLOSURE, "");
+            log.info("[{}] Sent Page.crash to target {}", w.uuid, w.targetId);
+        } catch (Exception e) {
+            log.warn("[{}] Could not crash page target: {}", w.uuid, e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("watchedMeetings", watched.size());
+        stats.put("stalls", totalStalls.get());
+        stats.put("callBudgetMs", defaultBudgetMs);
+        return stats;
+    }
+
+    private static class Watched {
+        private final String uuid;
+        private final MeetingMetrics metrics;
+        private final String cdpEndpoint;
+        private final String targetId;
+        private volatile InFlight current;
+        private volatile boolean aborted;
+
+        Watched(String uuid, MeetingMetrics metrics, String cdpEndpoint, String targetId) {
+            this.uuid = uuid;
+            this.metrics = metrics;
+            this.cdpEndpoint = cdpEndpoint;
+            this.targetId = targetId;
+        }
+    }
+
+    private static class InFlight {
+        private final String operation;
+        private final long startedAt;
+        private final long budgetMs;
+        private volatile boolean expired;
+        private volatile boolean crashed;
+
+        InFlight(String operation, long startedAt, long budgetMs) {
+            this.operation = operation;
+            this.startedAt = startedAt;
+            this.budgetMs = budgetMs;
+        }
+    }
+}
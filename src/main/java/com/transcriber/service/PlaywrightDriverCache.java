@@ -0,0 +1,216 @@
+package com.transcriber.service;
+
+import com.microsoft.playwright.Playwright;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps one Playwright instance (and its Node.js driver process) alive per worker thread.
+ * Playwright Java is thread-bound, so a driver is only ever handed back to the thread that
+ * created it. Drivers are recycled after a configurable number of meetings, when a meeting
+ * reports them unhealthy, or when their owning thread has exited.
+ * <p>
+ * For the same reason a Playwright object is only ever closed on its owner thread (recycling
+ * happens in {@link #acquire}). Drivers of exited threads and drivers still alive at shutdown
+ * are ended from other threads by terminating their Node.js process instead, which fails the
+ * owner's connection rather than racing it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PlaywrightDriverCache {
+
+    private final ProcessRegistry processRegistry;
+
+    @Value("${playwright.driver.max-meetings-per-driver:20}")
+    private int maxMeetingsPerDriver;
+
+    private final ThreadLocal<Driver> threadDriver = new ThreadLocal<>();
+    // All live drivers by owning thread, so exited threads and shutdown can be cleaned up
+    private final ConcurrentHashMap<Thread, Driver> drivers = new ConcurrentHashMap<>();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong recycled = new AtomicLong();
+
+    /**
+     * Get this thread's Playwright instance for a new meeting, creating or recycling it as needed.
+     */
+    public Playwright acquire(String uuid) {
+        Driver driver = threadDriver.get();
+        if (driver != null && driver.healthy && !isResponsive(driver)) {
+            driver.healthy = false;
+        }
+        if (driver != null && (!driver.healthy || driver.meetings >= maxMeetingsPerDriver)) {
+            log.info("[{}] Recycling Playwright driver on thread {} ({} meetings, healthy={})",
+                    uuid, Thread.currentThread().getName(), driver.meetings, driver.healthy);
+            discard(driver);
+            recycled.incrementAndGet();
+            driver = null;
+        }
+
+        if (driver == null) {
+            log.info("[{}] Creating Playwright instance on thread: {}", uuid, Thread.currentThread().getName());
+            driver = createDriver();
+            threadDriver.set(driver);
+            drivers.put(driver.owner, driver);
+            created.incrementAndGet();
+        } else {
+            log.info("[{}] Reusing Playwright instance on thread: {} (meeting #{})",
+                    uuid, Thread.currentThread().getName(), driver.meetings + 1);
+            reused.incrementAndGet();
+        }
+
+        driver.meetings++;
+        return driver.playwright;
+    }
+
+    private Driver createDriver() {
+        // No other child can appear while the lock is held, so the new driver process is found by diffing
+        synchronized (ProcessRegistry.SPAWN_LOCK) {
+            Set<Long> before = childPids();
+            Driver driver = new Driver(Playwright.create(), Thread.currentThread(), created.get() + 1);
+            ProcessHandle.current().children()
+                    .filter(ph -> !before.contains(ph.pid()))
+                    .filter(ProcessRegistry::isPlaywrightDriver)
+                    .forEach(ph -> {
+                        driver.pids.add(ph.pid());
+                        processRegistry.registerRoot(ph, driver.label);
+                    });
+            return driver;
+        }
+    }
+
+    private static Set<Long> childPids() {
+        return ProcessHandle.current().children()
+                .map(ProcessHandle::pid)
+                .collect(java.util.stream.Collectors.toSet());
+    }
+
+    /**
+     * Health check: one cheap round trip through the driver before handing it out again.
+     */
+    private boolean isResponsive(Driver driver) {
+        try {
+            driver.playwright.request().newContext().dispose();
+            return true;
+        } catch (Exception e) {
+            log.warn("Playwright driver on thread {} failed health check: {}", driver.owner.getName(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Mark this thread's driver as broken so the next meeting on this thread gets a fresh one.
+     */
+    public void markUnhealthy(String uuid, Throwable cause) {
+        Driver driver = threadDriver.get();
+        if (driver != null && driver.healthy) {
+            log.warn("[{}] Playwright driver marked unhealthy: {}", uuid, cause.getMessage());
+            driver.healthy = false;
+        }
+    }
+
+    /**
+     * True if the failure means the driver connection itself is gone, not just the page.
+     */
+    public static boolean isDriverFailure(Throwable e) {
+        String message = e.getMessage() != null ? e.getMessage() : "";
+        return message.contains("Playwright connection closed")
+                || message.contains("Driver process terminated")
+                || message.contains("Failed to read message from driver");
+    }
+
+    private void discard(Driver driver) {
+        threadDriver.remove();
+        drivers.remove(driver.owner, driver);
+        close(driver);
+    }
+
+    // Owner thread only
+    private void close(Driver driver) {
+        try {
+            driver.playwright.close();
+        } catch (Exception e) {
+            log.debug("Error closing Playwright driver: {}", e.getMessage());
+        }
+        // If the Node.js process survived close(), the reaper picks it up as an orphan
+        driver.pids.forEach(pid -> processRegistry.unregisterRoot(pid, driver.label));
+    }
+
+    /**
+     * End a driver from a thread other than its owner: terminate its Node.js process instead of touching
+     * the Playwright object. A driver process that was never found is left to the reaper as an orphan.
+     */
+    private void terminate(Driver driver) {
+        for (long pid : driver.pids) {
+            ProcessHandle.of(pid).ifPresent(ph -> {
+                ph.destroy();
+                try {
+                    ph.onExit().get(5, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    log.warn("Playwright driver process {} did not exit, killing it", pid);
+                    ph.destroyForcibly();
+                }
+            });
+            processRegistry.unregisterRoot(pid, driver.label);
+        }
+    }
+
+    /**
+     * End drivers whose owning thread has exited (e.g. executor threads above core size timing out).
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void closeOrphanedDrivers() {
+        drivers.forEach((thread, driver) -> {
+            if (!thread.isAlive() && drivers.remove(thread, driver)) {
+                log.info("Ending Playwright driver of exited thread {}", thread.getName());
+                terminate(driver);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        // Owner threads may still be in a meeting; their drivers can't be closed from here
+        drivers.values().forEach(this::terminate);
+        drivers.clear();
+        log.info("Playwright driver cache cleaned up");
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("liveDrivers", drivers.size());
+        stats.put("created", created.get());
+        stats.put("reused", reused.get());
+        stats.put("recycled", recycled.get());
+        stats.put("maxMeetingsPerDriver", maxMeetingsPerDriver);
+        return stats;
+    }
+
+    private static class Driver {
+        private final Playwright playwright;
+        private final Thread owner;
+        // Root label in the process registry, unique per driver
+        private final String label;
+        private final Set<Long> pids = ConcurrentHashMap.newKeySet();
+        private int meetings;
+        private volatile boolean healthy = true;
+
+        Driver(Playwright playwright, Thread owner, long number) {
+            this.playwright = playwright;
+            this.owner = owner;
+            this.label = "driver#" + number + ":" + owner.getName();
+        }
+    }
+}
@@ -1,42 +1,80 @@
 package com.transcriber.service;
 
+import com.google.gson.JsonObject;
 import com.microsoft.playwright.*;
-import com.microsoft.playwright.options.LoadState;
+import com.microsoft.playwright.options.WaitForSelectorState;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transcriber.model.CaptionEvent;
+import com.transcriber.model.CaptureGap;
+import com.transcriber.model.MeetingMetrics;
 import com.transcriber.model.MeetingSession;
+import com.transcriber.model.PageState;
 import com.transcriber.model.TranscriptEntry;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 import java.util.regex.Pattern;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class PlaywrightService {
 
+    private final BrowserPoolService browserPool;
+    private final PlaywrightDriverCache driverCache;
+    private final NetworkFilterService networkFilter;
+    private final StorageStateCache storageStateCache;
+    private final ProcessRegistry processRegistry;
+    private final PageWatchdog watchdog;
+    private final JoinStrategyCache joinStrategyCache;
+    private final SelectorRegistryService selectorRegistry;
+    private final ResourceSampler resourceSampler;
+    private final DiagnosticsCaptureService diagnostics;
+    private final IdleDetectionService idleDetection;
+    private final ObjectMapper objectMapper;
+
     @Value("${meeting.bot-name:Alexa}")
     private String botName;
 
     @Value("${playwright.headless:true}")
     private boolean headless;
 
-    @Value("${playwright.user-data-dir:/tmp/playwright-data}")
-    private String userDataDir;
+    // Pause before each UI interaction (clicks, typing, shortcuts); capture-loop calls are not paced.
+    // playwright.slow-mo is the old name, from when every driver call was slowed down
+    @Value("${playwright.ui-pacing-ms:${playwright.slow-mo:100}}")
+    private int uiPacingMs;
+
+    @Value("${playwright.captions-only:true}")
+    private boolean captionsOnly;
+
+    // Caption changes are pushed from a page-side DOM observer; the capture loop polls only when it has been quiet
+    @Value("${playwright.caption-push.enabled:true}")
+    private boolean captionPush;
+
+    @Value("${playwright.caption-push.fallback-poll-ms:5000}")
+    private long captionFallbackPollMs;
 
-    @Value("${playwright.slow-mo:100}")
-    private int slowMo;
+    // Leaving runs during cleanup, so a hung page should not hold the meeting thread for the full default budget
+    private static final long LEAVE_CALL_BUDGET_MS = 10000;
 
-    @Value("${meeting.transcript-path:/tmp/transcripts}")
-    private String transcriptPath;
+    @Value("${meeting.rejoin.max-attempts:3}")
+    private int maxRejoins;
 
     @Value("${meeting.admission-timeout-seconds:120}")
     private int admissionTimeoutSeconds;
@@ -44,6 +82,14 @@ public class PlaywrightService {
     // Track active browser contexts per meeting
     private final ConcurrentHashMap<String, BrowserContext> activeContexts = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, AtomicBoolean> stopFlags = new ConcurrentHashMap<>();
+    // Meetings whose context was seeded from a storage state snapshot (first-run/consent UI already dismissed)
+    private final Set<String> warmProfiles = ConcurrentHashMap.newKeySet();
+    // Why the current meeting page was lost (crash/close), null while it is healthy
+    private final ConcurrentHashMap<String, AtomicReference<String>> pageLost = new ConcurrentHashMap<>();
+    // Per-meeting consumers of the caption events that changed the caption stream (a worker streams them out)
+    private final ConcurrentHashMap<String, Consumer<CaptionEvent>> captionListeners = new ConcurrentHashMap<>();
+    // Per-meeting consumers told when a capture run's entries have been saved
+    private final ConcurrentHashMap<String, IntConsumer> runSavedListeners = new ConcurrentHashMap<>();
 
     @PostConstruct
     public void init() {
@@ -75,153 +121,473 @@ public class PlaywrightService {
         String uuid = session.getUuid();
         stopFlags.put(uuid, new AtomicBoolean(false));
         
-        // Each meeting gets its own Playwright instance on the calling thread.
         // Playwright Java is NOT thread-safe -- the instance must be created and
         // used on the same thread, so we cannot share a single @PostConstruct instance.
-        Playwright playwright = null;
-        BrowserContext context = null;
-        Page page = null;
+        // Instead each worker thread keeps its own instance alive across meetings.
+        Playwright playwright;
+        MeetingBrowser mb = new MeetingBrowser();
 
         try {
-            log.info("[{}] Creating Playwright instance on thread: {}", uuid, Thread.currentThread().getName());
-            playwright = Playwright.create();
+            if (session.getStatus() == MeetingSession.MeetingStatus.CANCELLED) {
+                log.info("[{}] Meeting was cancelled before it started", uuid);
+                return;
+            }
+            long phaseStart = System.currentTimeMillis();
+            playwright = driverCache.acquire(uuid);
+            phaseStart = phaseDone(session, "driver", phaseStart);
 
             log.info("[{}] Starting browser for meeting: {}", uuid, session.getMeetUrl());
             log.info("[{}] Using anti-detection mode to bypass bot detection", uuid);
-            session.setStatus(MeetingSession.MeetingStatus.JOINING);
-
-            // Create browser with anti-detection measures to avoid Google bot blocking
-            Browser browser = playwright.chromium().launch(new BrowserType.LaunchOptions()
-                    .setHeadless(headless)
-                    .setSlowMo(slowMo)
-                    .setArgs(java.util.List.of(
-                            // Media permissions (use fake stream to avoid needing real camera/mic)
-                            "--use-fake-ui-for-media-stream",
-                            "--use-fake-device-for-media-stream",
-                            // NOTE: Do NOT use --auto-accept-camera-and-microphone-capture - it conflicts with fake-ui
-                            
-                            // Anti-detection: hide automation flags
-                            "--disable-blink-features=AutomationControlled",
-                            
-                            // Appear as normal browser
-                            "--disable-infobars",
-                            "--no-first-run",
-                            "--no-default-browser-check",
-                            
-                            // Performance & stability
-                            "--disable-gpu",
-                            "--disable-dev-shm-usage",
-                            "--no-sandbox"
-                    )));
-
-            // Real Chrome user agent to avoid detection
-            String realUserAgent = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/131.0.0.0 Safari/537.36";
-
-            context = browser.newContext(new Browser.NewContextOptions()
-                    .setPermissions(java.util.List.of("microphone", "camera", "notifications"))
-                    .setViewportSize(1280, 720)
-                    .setUserAgent(realUserAgent)
-                    .setLocale("en-US")
-                    .setTimezoneId("Asia/Kolkata"));
-            
-            activeContexts.put(uuid, context);
-            page = context.newPage();
-            
-            // Inject anti-detection JavaScript before any page load
-            page.addInitScript("() => {\n" +
-                    "  // Hide webdriver flag\n" +
-                    "  Object.defineProperty(navigator, 'webdriver', { get: () => undefined });\n" +
-                    "  \n" +
-                    "  // Hide automation indicators\n" +
-                    "  window.chrome = { runtime: {} };\n" +
-                    "  \n" +
-                    "  // Override permissions query\n" +
-                    "  const originalQuery = window.navigator.permissions.query;\n" +
-                    "  window.navigator.permissions.query = (parameters) => (\n" +
-                    "    parameters.name === 'notifications' ?\n" +
-                    "      Promise.resolve({ state: Notification.permission }) :\n" +
-                    "      originalQuery(parameters)\n" +
-                    "  );\n" +
-                    "  \n" +
-                    "  // Hide plugins length\n" +
-                    "  Object.defineProperty(navigator, 'plugins', {\n" +
-                    "    get: () => [1, 2, 3, 4, 5]\n" +
-                    "  });\n" +
-                    "  \n" +
-                    "  // Hide languages\n" +
-                    "  Object.defineProperty(navigator, 'languages', {\n" +
-                    "    get: () => ['en-US', 'en']\n" +
-                    "  });\n" +
-                    "}");
-
-            // Navigate to Meet URL (anonymous join - no Google sign-in)
-            log.info("[{}] Navigating to Meet URL", uuid);
-            page.navigate(session.getMeetUrl(), new Page.NavigateOptions()
-                    .setTimeout(60000));
-            try {
-                page.waitForLoadState(LoadState.NETWORKIDLE, new Page.WaitForLoadStateOptions().setTimeout(20000));
-            } catch (Exception e) {
-                log.debug("[{}] NETWORKIDLE not reached, continuing anyway", uuid);
-            }
-            
-            // Give the page time to render (reduced from 7s to 3s)
-            log.info("[{}] Waiting for page to load...", uuid);
-            Thread.sleep(3000);
+            updateStatus(session, MeetingSession.MeetingStatus.JOINING);
+
+            // Lease an isolated context slot on a pooled Chromium (shared across meetings)
+            // and connect to it from this thread's Playwright instance
+            connect(playwright, mb, uuid);
+            session.getMetrics().setLaunchProfile(browserPool.getLaunchProfile());
+            phaseStart = phaseDone(session, "browser", phaseStart);
+            mb.context = newMeetingContext(mb.browser, session);
+            phaseStart = phaseDone(session, "context", phaseStart);
+            openMeetingPage(mb, session);
+            Page page = mb.page;
+            phaseStart = phaseDone(session, "navigate", phaseStart);
 
             // Handle pre-join screen (set name to Alexa, turn off cam/mic)
             handlePreJoinScreen(page, uuid);
+            phaseDone(session, "prejoin", phaseStart);
+
+            // Browser is warm and the pre-join page is ready; hold here until the scheduled start
+            // (not counted as join latency)
+            if (!waitForScheduledStart(page, session)) {
+                log.info("[{}] Meeting was cancelled before the scheduled start", uuid);
+                session.setStatus(MeetingSession.MeetingStatus.CANCELLED);
+                return;
+            }
 
             // Join the meeting
-            joinMeeting(page, uuid);
-            session.setStatus(MeetingSession.MeetingStatus.IN_PROGRESS);
+            phaseStart = System.currentTimeMillis();
+            joinMeeting(page, session);
+            updateStatus(session, MeetingSession.MeetingStatus.IN_PROGRESS);
+            phaseStart = phaseDone(session, "join", phaseStart);
 
             // Safety net: handle any remaining consent/notification dialogs
             // (Gemini notes, recording consent, self-view "Got it", etc.)
             handleRecordingConsentDialogs(page, uuid);
+            phaseStart = phaseDone(session, "consent", phaseStart);
+
+            enableCaptions(page, session);
+            phaseDone(session, "captions", phaseStart);
+            // Only a context that got into the meeting is worth seeding others from
+            storageStateCache.snapshot(uuid, session.getMeetUrl(), mb.context);
+            // "admission" is part of "join", so it is not added again
+            session.getMetrics().setJoinTotalMs(session.getMetrics().getJoinPhaseMs().entrySet().stream()
+                    .filter(e -> !"admission".equals(e.getKey()))
+                    .mapToLong(Map.Entry::getValue).sum());
+            log.info("[{}] Join latency {} ms by phase: {}", uuid, session.getMetrics().getJoinTotalMs(),
+                    session.getMetrics().getJoinPhaseMs());
+
+            // Capture transcripts until end time, re-joining if the page is lost on the way
+            mb.idle = idleDetection.track(session);
+            String lostReason = captureTranscripts(mb, session);
+            while (lostReason != null) {
+                lostReason = rejoin(playwright, mb, session, lostReason);
+            }
+            recordRendererCpu(mb, session);
+            if (session.getEndReason() == null) {
+                session.setEndReason(stopFlags.get(uuid).get()
+                        ? MeetingSession.EndReason.STOPPED : MeetingSession.EndReason.END_TIME);
+            }
 
-            // Enable captions (reduced delay from 2s to 1s)
-            Thread.sleep(1000);
-            enableCaptions(page, uuid);
-
-            // Capture transcripts until end time
-            captureTranscripts(page, session);
-
-            session.setStatus(MeetingSession.MeetingStatus.COMPLETED);
+            updateStatus(session, MeetingSession.MeetingStatus.COMPLETED);
             log.info("[{}] Meeting completed successfully. Total transcripts: {}", 
                     uuid, session.getTranscripts().size());
 
         } catch (Exception e) {
+            if (session.getStatus() == MeetingSession.MeetingStatus.CANCELLED) {
+                // Cancelled while joining: the page was torn down under us, not a failure
+                log.info("[{}] Meeting cancelled ({})", uuid, e.getMessage());
+                return;
+            }
             log.error("[{}] Error during meeting: {}", uuid, e.getMessage(), e);
+            if (PlaywrightDriverCache.isDriverFailure(e)) {
+                driverCache.markUnhealthy(uuid, e);
+            }
+            // A seeded join that failed on a sign-in page or consent wall points at stale seeded state;
+            // a denied join, wrong URL or timeout does not
+            if (warmProfiles.contains(uuid) && session.getStatus() == MeetingSession.MeetingStatus.JOINING
+                    && showsBadState(mb.page, uuid)) {
+                storageStateCache.invalidate(uuid, session.getMeetUrl());
+            }
             session.setStatus(MeetingSession.MeetingStatus.FAILED);
             session.setErrorMessage(e.getMessage());
         } finally {
             // Leave meeting and cleanup
-            if (page != null) {
+            if (mb.page != null) {
                 try {
-                    leaveMeeting(page, uuid);
+                    leaveMeeting(mb.page, uuid);
                 } catch (Exception e) {
                     log.warn("[{}] Error leaving meeting: {}", uuid, e.getMessage());
                 }
             }
-            if (context != null) {
+            closeQuietly(mb, uuid);
+            disconnect(mb, uuid);
+            watchdog.unwatch(uuid);
+            activeContexts.remove(uuid);
+            stopFlags.remove(uuid);
+            pageLost.remove(uuid);
+            warmProfiles.remove(uuid);
+            processRegistry.meetingFinished(uuid);
+        }
+    }
+
+    /**
+     * Hand each caption event that changed the meeting's caption stream to the listener, on the meeting
+     * thread as soon as it is applied (tagged with its capture run).
+     */
+    public void setCaptionListener(String uuid, Consumer<CaptionEvent> listener) {
+        captionListeners.put(uuid, listener);
+    }
+
+    public void removeCaptionListener(String uuid) {
+        captionListeners.remove(uuid);
+    }
+
+    /**
+     * Hand the capture run number to the listener once all entries of that run have been added to the
+     * session, on the meeting thread.
+     */
+    public void setRunSavedListener(String uuid, IntConsumer listener) {
+        runSavedListeners.put(uuid, listener);
+    }
+
+    public void removeRunSavedListener(String uuid) {
+        runSavedListeners.remove(uuid);
+    }
+
+    /**
+     * Set the session status unless the meeting was cancelled meanwhile; cancelled stays the final status.
+     */
+    private static void updateStatus(MeetingSession session, MeetingSession.MeetingStatus status) {
+        if (session.getStatus() != MeetingSession.MeetingStatus.CANCELLED) {
+            session.setStatus(status);
+        }
+    }
+
+    /**
+     * Lease a context slot on a pooled browser and connect to it.
+     */
+    private void connect(Playwright playwright, MeetingBrowser mb, String uuid) throws Exception {
+        mb.lease = browserPool.lease(uuid);
+        mb.browser = playwright.chromium().connectOverCDP(mb.lease.getEndpoint());
+    }
+
+    /**
+     * Disconnect from the pooled browser (does not stop it) and return the slot.
+     */
+    private void disconnect(MeetingBrowser mb, String uuid) {
+        if (mb.browser != null) {
+            try {
+                mb.browser.close();
+            } catch (Exception e) {
+                log.warn("[{}] Error disconnecting from pooled browser: {}", uuid, e.getMessage());
+            }
+            mb.browser = null;
+        }
+        if (mb.lease != null) {
+            mb.lease.close();
+            mb.lease = null;
+        }
+    }
+
+    private BrowserContext newMeetingContext(Browser browser, MeetingSession session) {
+        String uuid = session.getUuid();
+
+        Browser.NewContextOptions contextOptions = meetingContextOptions();
+
+        // Seed cookies/local storage from an earlier successful pre-join, if still fresh
+        Path storageState = storageStateCache.lookup(session.getMeetUrl());
+        if (storageState != null) {
+            contextOptions.setStorageStatePath(storageState);
+            warmProfiles.add(uuid);
+            log.info("[{}] Seeding context from storage state snapshot", uuid);
+        }
+        session.getMetrics().setStorageStateReused(storageState != null);
+
+        BrowserContext context = browser.newContext(contextOptions);
+        
+        activeContexts.put(uuid, context);
+        networkFilter.install(context, session);
+        return context;
+    }
+
+    // Real Chrome user agent to avoid detection
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/131.0.0.0 Safari/537.36";
+
+    /**
+     * Context options every meeting page runs with (also used by the launch profile benchmark).
+     */
+    static Browser.NewContextOptions meetingContextOptions() {
+        return new Browser.NewContextOptions()
+                .setPermissions(java.util.List.of("microphone", "camera", "notifications"))
+                .setViewportSize(1280, 720)
+                .setUserAgent(USER_AGENT)
+                .setLocale("en-US")
+                .setTimezoneId("Asia/Kolkata");
+    }
+
+    /**
+     * Open the meeting page in mb.context and navigate to the Meet URL. Crash/close events of the
+     * page, its context and the browser connection are recorded so capture can notice the loss.
+     */
+    private void openMeetingPage(MeetingBrowser mb, MeetingSession session) {
+        String uuid = session.getUuid();
+
+        // Renderer processes started for this page (incl. the one after navigation) belong to this meeting
+        ProcessRegistry.Attribution renderers = processRegistry.beginAttribution(uuid, mb.lease.getBrowserPid());
+        Page page = mb.context.newPage();
+        mb.page = page;
+        watchdog.watch(session, mb.lease.getEndpoint(), targetId(mb.context, page));
+
+        // Each page gets its own flag so late events from a replaced page are ignored
+        AtomicReference<String> lost = new AtomicReference<>();
+        pageLost.put(uuid, lost);
+        page.onCrash(p -> lost.compareAndSet(null, "renderer crashed"));
+        page.onClose(p -> lost.compareAndSet(null, "page closed"));
+        mb.context.onClose(c -> lost.compareAndSet(null, "context closed"));
+        mb.browser.onDisconnected(b -> lost.compareAndSet(null, "browser disconnected"));
+        
+        // Inject anti-detection JavaScript before any page load
+        page.addInitScript("() => {\n" +
+                "  // Hide webdriver flag\n" +
+                "  Object.defineProperty(navigator, 'webdriver', { get: () => undefined });\n" +
+                "  \n" +
+                "  // Hide automation indicators\n" +
+                "  window.chrome = { runtime: {} };\n" +
+                "  \n" +
+                "  // Override permissions query\n" +
+                "  const originalQuery = window.navigator.permissions.query;\n" +
+                "  window.navigator.permissions.query = (parameters) => (\n" +
+                "    parameters.name === 'notifications' ?\n" +
+                "      Promise.resolve({ state: Notification.permission }) :\n" +
+                "      originalQuery(parameters)\n" +
+                "  );\n" +
+                "  \n" +
+                "  // Hide plugins length\n" +
+                "  Object.defineProperty(navigator, 'plugins', {\n" +
+                "    get: () => [1, 2, 3, 4, 5]\n" +
+                "  });\n" +
+                "  \n" +
+                "  // Hide languages\n" +
+                "  Object.defineProperty(navigator, 'languages', {\n" +
+                "    get: () => ['en-US', 'en']\n" +
+                "  });\n" +
+                "}");
+
+        // Caption probe installed once per frame; capture ticks only call it
+        page.addInitScript(selectorRegistry.getProbeInstallScript());
+        mb.captionAffinity = new CaptionAffinity();
+
+        // Caption observer in every frame, pushing to a queue drained by the capture loop. Bindings are
+        // dispatched on this thread while it waits in the driver (page.waitForTimeout in the loop)
+        if (captionPush) {
+            ConcurrentLinkedQueue<CaptionEvent> events = new ConcurrentLinkedQueue<>();
+            mb.captionEvents = events;
+            page.exposeBinding(SelectorRegistryService.CAPTION_BINDING, (source, args) -> {
+                events.offer(toCaptionEvent(args[0], uuid,
+                        "push:" + (source.frame() == page.mainFrame() ? "main" : "iframe")));
+                return null;
+            });
+            page.addInitScript(selectorRegistry.getCaptionObserverScript());
+        }
+
+        // Captions are rendered server-side, so remote video is never needed
+        session.getMetrics().setCaptionsOnly(captionsOnly);
+        if (captionsOnly) {
+            page.addInitScript(CAPTIONS_ONLY_SCRIPT);
+            log.info("[{}] Captions-only mode: remote video decode/render suppressed", uuid);
+        }
+        mb.pageOpenedAt = System.currentTimeMillis();
+
+        // Navigate to Meet URL (anonymous join - no Google sign-in)
+        log.info("[{}] Navigating to Meet URL", uuid);
+        // Meet keeps long-lived connections open, so NETWORKIDLE rarely arrives; readiness of
+        // the pre-join UI is awaited as a DOM condition in handlePreJoinScreen instead
+        try {
+            page.navigate(session.getMeetUrl(), new Page.NavigateOptions()
+                    .setTimeout(60000));
+        } finally {
+            processRegistry.endAttribution(renderers);
+        }
+    }
+
+    /**
+     * Re-join after the meeting page was lost (renderer crash, context closed, page stalled).
+     * The session and the transcript captured so far are kept; the time without capture is
+     * recorded as a gap. Returns the reason capture stopped again, or null once capture ended
+     * normally or no further attempt is possible.
+     */
+    private String rejoin(Playwright playwright, MeetingBrowser mb, MeetingSession session, String lostReason) {
+        String uuid = session.getUuid();
+        LocalDateTime gapStart = LocalDateTime.now();
+        long lostAt = System.currentTimeMillis();
+        String reason = lostReason;
+
+        while (true) {
+            AtomicBoolean stopFlag = stopFlags.get(uuid);
+            if (stopFlag.get() || !ZonedDateTime.now().isBefore(session.getEndTime())) {
+                session.addGap(CaptureGap.builder().from(gapStart).to(LocalDateTime.now()).reason(lostReason).build());
+                return null;
+            }
+            if (session.getMetrics().getRejoins() >= maxRejoins) {
+                log.error("[{}] Meeting page lost ({}) and re-join limit of {} reached", uuid, reason, maxRejoins);
+                session.setErrorMessage("Meeting page lost and could not be re-joined: " + reason);
+                session.setEndReason(MeetingSession.EndReason.PAGE_LOST);
+                session.addGap(CaptureGap.builder().from(gapStart).to(session.getEndTime().toLocalDateTime())
+                        .reason(lostReason).build());
+                return null;
+            }
+            session.getMetrics().setRejoins(session.getMetrics().getRejoins() + 1);
+            log.warn("[{}] Meeting page lost ({}), re-joining (attempt {}/{})", uuid, reason,
+                    session.getMetrics().getRejoins(), maxRejoins);
+
+            try {
+                // The old context is unusable; replace it (and the browser connection if that died too)
+                closeQuietly(mb, uuid);
+                if (mb.browser == null || !mb.browser.isConnected()) {
+                    disconnect(mb, uuid);
+                    connect(playwright, mb, uuid);
+                }
+                mb.context = newMeetingContext(mb.browser, session);
+                openMeetingPage(mb, session);
+
+                handlePreJoinScreen(mb.page, uuid);
+                joinMeeting(mb.page, session);
+                handleRecordingConsentDialogs(mb.page, uuid);
+                enableCaptions(mb.page, session);
+            } catch (Exception e) {
+                log.warn("[{}] Re-join attempt failed: {}", uuid, e.getMessage());
+                reason = "re-join failed: " + e.getMessage();
                 try {
-                    context.close();
-                } catch (Exception e) {
-                    log.warn("[{}] Error closing context: {}", uuid, e.getMessage());
+                    Thread.sleep(2000);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    session.addGap(CaptureGap.builder().from(gapStart).to(LocalDateTime.now()).reason(lostReason).build());
+                    return null;
                 }
+                continue;
             }
-            // Close the per-meeting Playwright instance (and its Node.js process)
-            if (playwright != null) {
-                try {
-                    playwright.close();
-                    log.info("[{}] Playwright instance closed", uuid);
-                } catch (Exception e) {
-                    log.warn("[{}] Error closing Playwright: {}", uuid, e.getMessage());
+
+            long latencyMs = System.currentTimeMillis() - lostAt;
+            MeetingMetrics metrics = session.getMetrics();
+            metrics.setLastRejoinLatencyMs(latencyMs);
+            metrics.setMaxRejoinLatencyMs(Math.max(latencyMs,
+                    metrics.getMaxRejoinLatencyMs() != null ? metrics.getMaxRejoinLatencyMs() : 0));
+            session.addGap(CaptureGap.builder().from(gapStart).to(LocalDateTime.now()).reason(lostReason).build());
+            log.info("[{}] Re-joined meeting {} ms after losing the page", uuid, latencyMs);
+
+            try {
+                return captureTranscripts(mb, session);
+            } catch (Exception e) {
+                return "capture failed: " + e.getMessage();
+            }
+        }
+    }
+
+    /**
+     * Close the meeting's page context, ignoring errors (the context may already be dead).
+     */
+    private void closeQuietly(MeetingBrowser mb, String uuid) {
+        if (mb.context != null) {
+            try {
+                mb.context.close();
+            } catch (Exception e) {
+                log.warn("[{}] Error closing context: {}", uuid, e.getMessage());
+            }
+            mb.context = null;
+            mb.page = null;
+            mb.perf = null;
+        }
+    }
+
+    /**
+     * Init script for captions-only mode. Hidden video tiles make Meet stop requesting video
+     * layers for them, and disabling incoming video tracks stops any frames that still arrive
+     * from being rendered. Audio and the caption DOM are untouched.
+     */
+    static final String CAPTIONS_ONLY_SCRIPT = """
+            (() => {
+              const NativePC = window.RTCPeerConnection;
+              if (NativePC) {
+                const PatchedPC = function(...args) {
+                  const pc = new NativePC(...args);
+                  pc.addEventListener('track', (e) => {
+                    if (e.track && e.track.kind === 'video') e.track.enabled = false;
+                  });
+                  return pc;
+                };
+                PatchedPC.prototype = NativePC.prototype;
+                Object.setPrototypeOf(PatchedPC, NativePC);
+                window.RTCPeerConnection = PatchedPC;
+              }
+              const hideVideo = () => {
+                const style = document.createElement('style');
+                style.textContent = 'video { display: none !important; }';
+                (document.head || document.documentElement).appendChild(style);
+              };
+              if (document.documentElement) hideVideo();
+              else document.addEventListener('DOMContentLoaded', hideVideo);
+              document.addEventListener('play', (e) => {
+                if (e.target instanceof HTMLVideoElement) e.target.pause();
+              }, true);
+            })();
+            """;
+
+    /**
+     * Record renderer main-thread task time (CDP Performance.TaskDuration) so CPU per meeting
+     * can be compared with captions-only mode on and off.
+     */
+    private void recordRendererCpu(MeetingBrowser mb, MeetingSession session) {
+        try {
+            JsonObject result = performanceMetrics(mb, session.getUuid());
+            for (com.google.gson.JsonElement metric : result.getAsJsonArray("metrics")) {
+                JsonObject m = metric.getAsJsonObject();
+                if ("TaskDuration".equals(m.get("name").getAsString())) {
+                    double taskSeconds = m.get("value").getAsDouble();
+                    double wallSeconds = Math.max(1, (System.currentTimeMillis() - mb.pageOpenedAt) / 1000.0);
+                    session.getMetrics().setRendererTaskSeconds(taskSeconds);
+                    session.getMetrics().setRendererCpuPercent(taskSeconds * 100 / wallSeconds);
+                    log.info("[{}] Renderer task time {}s over {}s (captions-only={})",
+                            session.getUuid(), String.format("%.1f", taskSeconds), String.format("%.0f", wallSeconds), captionsOnly);
                 }
             }
-            activeContexts.remove(uuid);
-            stopFlags.remove(uuid);
+        } catch (Exception e) {
+            log.debug("[{}] Could not read renderer performance metrics: {}", session.getUuid(), e.getMessage());
+        }
+    }
+
+    /**
+     * CDP Performance.getMetrics for the meeting page, over a CDP session kept for the page's lifetime.
+     */
+    private JsonObject performanceMetrics(MeetingBrowser mb, String uuid) {
+        return watchdog.call(uuid, "performance-metrics", () -> {
+            if (mb.perf == null) {
+                mb.perf = mb.context.newCDPSession(mb.page);
+                mb.perf.send("Performance.enable");
+            }
+            return mb.perf.send("Performance.getMetrics");
+        });
+    }
+
+    /**
+     * Add a resource sample to the meeting's time series; a page that can't report metrics still gets /proc figures.
+     */
+    private void sampleResources(MeetingBrowser mb, MeetingSession session) {
+        JsonObject performance = null;
+        try {
+            performance = performanceMetrics(mb, session.getUuid());
+        } catch (Exception e) {
+            log.debug("[{}] Could not read performance metrics: {}", session.getUuid(), e.getMessage());
         }
+        resourceSampler.sample(session, performance);
     }
 
     /**
@@ -235,19 +601,50 @@ public class PlaywrightService {
         }
     }
 
+    /**
+     * Block until the meeting's scheduled start time (warm-up finished early), or until stopped.
+     *
+     * @return false if the meeting was stopped (cancelled) before the start
+     */
+    private boolean waitForScheduledStart(Page page, MeetingSession session) {
+        String uuid = session.getUuid();
+        long readyOffsetMs = java.time.Duration.between(session.getStartTime(), ZonedDateTime.now()).toMillis();
+        session.getMetrics().setPrejoinReadyOffsetMs(readyOffsetMs);
+
+        if (readyOffsetMs >= 0) {
+            log.info("[{}] Pre-join ready {} ms after scheduled start, joining now", uuid, readyOffsetMs);
+            return !isStopped(session);
+        }
+
+        log.info("[{}] Pre-join ready {} ms ahead of scheduled start, waiting to join", uuid, -readyOffsetMs);
+        while (!isStopped(session) && ZonedDateTime.now().isBefore(session.getStartTime())) {
+            long remaining = java.time.Duration.between(ZonedDateTime.now(), session.getStartTime()).toMillis();
+            page.waitForTimeout(Math.max(1, Math.min(remaining, 1000)));
+        }
+        return !isStopped(session);
+    }
+
+    // Stop signalled, or cancelled before the meeting thread had a stop flag to signal
+    private boolean isStopped(MeetingSession session) {
+        return stopFlags.get(session.getUuid()).get() || session.getStatus() == MeetingSession.MeetingStatus.CANCELLED;
+    }
+
     private void handlePreJoinScreen(Page page, String uuid) throws Exception {
         log.info("[{}] Handling pre-join screen", uuid);
 
-        // Wait for pre-join screen to load (reduced from 5s to 2s)
-        Thread.sleep(2000);
+        // Wait until the pre-join screen shows its join controls (or a "can't join" page)
+        if (!waitForCondition(page, uuid, PREJOIN_READY_JS, PREJOIN_READY_TIMEOUT_MS)) {
+            log.info("[{}] Pre-join controls not detected within {} ms, continuing anyway", uuid, PREJOIN_READY_TIMEOUT_MS);
+        }
 
         // Turn off camera if toggle exists
         try {
             Locator cameraButton = page.locator("[data-is-muted='false'][aria-label*='camera' i], [aria-label*='Turn off camera' i]");
-            if (cameraButton.count() > 0) {
+            if (count(uuid, cameraButton) > 0) {
+                pace(page);
                 cameraButton.first().click();
                 log.info("[{}] Camera turned off", uuid);
-                Thread.sleep(500);
+                waitUntilGone(cameraButton, 1000);
             }
         } catch (Exception e) {
             log.debug("[{}] Camera toggle not found or already off", uuid);
@@ -256,10 +653,11 @@ public class PlaywrightService {
         // Turn off microphone if toggle exists
         try {
             Locator micButton = page.locator("[data-is-muted='false'][aria-label*='microphone' i], [aria-label*='Turn off microphone' i]");
-            if (micButton.count() > 0) {
+            if (count(uuid, micButton) > 0) {
+                pace(page);
                 micButton.first().click();
                 log.info("[{}] Microphone turned off", uuid);
-                Thread.sleep(500);
+                waitUntilGone(micButton, 1000);
             }
         } catch (Exception e) {
             log.debug("[{}] Microphone toggle not found or already off", uuid);
@@ -268,7 +666,8 @@ public class PlaywrightService {
         // Set display name if input exists
         try {
             Locator nameInput = page.locator("input[aria-label*='name' i], input[placeholder*='name' i]");
-            if (nameInput.count() > 0 && nameInput.isVisible()) {
+            if (count(uuid, nameInput) > 0 && nameInput.isVisible()) {
+                pace(page);
                 nameInput.clear();
                 nameInput.fill(botName);
                 log.info("[{}] Bot name set to: {}", uuid, botName);
@@ -278,17 +677,16 @@ public class PlaywrightService {
         }
     }
 
-    private void joinMeeting(Page page, String uuid) throws Exception {
+    private void joinMeeting(Page page, MeetingSession session) throws Exception {
+        String uuid = session.getUuid();
         log.info("[{}] Attempting to join meeting", uuid);
-
-        // Wait for pre-join UI to settle (reduced from 3s to 1.5s)
-        Thread.sleep(1500);
+        long joinStart = System.currentTimeMillis();
+        long callsAtStart = session.getMetrics().getWatchedCalls();
 
         // Check for "You can't join" / meeting doesn't allow guests AT ALL
-        if (page.locator("text='You can't join this video call'").count() > 0
-                || page.locator("text='Return to home screen'").count() > 0
-                || page.locator("text='Returning to home screen'").count() > 0) {
-            saveFailureScreenshot(page, uuid);
+        PageState state = pageState(page, uuid);
+        if (state.isDenied()) {
+            diagnostics.captureFailure(page, session, "join");
             throw new RuntimeException(
                     "Meeting COMPLETELY BLOCKED for guests. This meeting requires you to be signed in with an allowed Google account, " +
                     "OR the host must change settings to allow 'Anyone with the link' to join. " +
@@ -296,9 +694,7 @@ public class PlaywrightService {
         }
 
         // Check for "meeting hasn't started" or "waiting for host"
-        if (page.locator("text='Waiting for the host'").count() > 0
-                || page.locator("text='The meeting hasn't started'").count() > 0
-                || page.locator("text='waiting for someone to let you in'").count() > 0) {
+        if (state.isWaiting()) {
             log.info("[{}] Meeting hasn't started yet or waiting for host. Will wait...", uuid);
         }
 
@@ -310,165 +706,73 @@ public class PlaywrightService {
             log.debug("[{}] No join button appeared within 15s", uuid);
         }
 
-        // Try multiple selectors for the join button (Google Meet changes these often)
-        // Prioritize direct "Join now" over "Ask to join"
-        String[] directJoinSelectors = {
-                "button[aria-label*='Join now' i]",
-                "button[aria-label*='Join meeting' i]",
-                "button:has-text('Join now')",
-                "button:has-text('Join meeting')",
-                "[role='button']:has-text('Join now')"
-        };
-        
-        String[] askToJoinSelectors = {
-                "button[aria-label*='Ask to join' i]",
-                "button[aria-label*='Request to join' i]",
-                "button:has-text('Ask to join')",
-                "button:has-text('Request to join')",
-                "[role='button']:has-text('Ask to join')",
-                "[role='button']:has-text('Request to join')"
-        };
-        
-        String[] fallbackSelectors = {
-                "button:has-text('Join')",
-                "[role='button']:has-text('Join')",
-                "button[jsname='Qx7uuf']",
-                "[data-idom-class*='join'] button",
-                "span:has-text('Join now')",
-                "span:has-text('Ask to join')"
-        };
-
-        boolean joined = false;
-        boolean askedToJoin = false;
-        
-        // First try direct join buttons
-        for (String selector : directJoinSelectors) {
-            try {
-                Locator joinButton = page.locator(selector).first();
-                joinButton.waitFor(new Locator.WaitForOptions().setTimeout(1000));
-                if (joinButton.isVisible()) {
-                    joinButton.click();
-                    log.info("[{}] Clicked DIRECT join button: {}", uuid, selector);
-                    joined = true;
-                    break;
-                }
-            } catch (Exception e) {
-                // Not found, continue
-            }
-        }
-        
-        // If no direct join, try "Ask to join" buttons
-        if (!joined) {
-            for (String selector : askToJoinSelectors) {
-                try {
-                    Locator joinButton = page.locator(selector).first();
-                    joinButton.waitFor(new Locator.WaitForOptions().setTimeout(1000));
-                    if (joinButton.isVisible()) {
-                        joinButton.click();
-                        log.info("[{}] Clicked ASK TO JOIN button: {}", uuid, selector);
-                        askedToJoin = true;
-                        joined = true;
-                        break;
-                    }
-                } catch (Exception e) {
-                    // Not found, continue
-                }
-            }
-        }
-        
-        // Try fallback selectors
-        if (!joined) {
-            for (String selector : fallbackSelectors) {
-                try {
-                    Locator joinButton = page.locator(selector).first();
-                    joinButton.waitFor(new Locator.WaitForOptions().setTimeout(1000));
-                    if (joinButton.isVisible()) {
-                        String buttonText = joinButton.textContent().toLowerCase();
-                        joinButton.click();
-                        log.info("[{}] Clicked fallback join button: {}", uuid, selector);
-                        askedToJoin = buttonText.contains("ask") || buttonText.contains("request");
-                        joined = true;
-                        break;
-                    }
-                } catch (Exception e) {
-                    // Not found, continue
-                }
+        // Try the strategy that worked last time for this meeting / UI variant first,
+        // then every strategy in priority order
+        String variant = detectJoinUiVariant(page, uuid);
+        String cached = joinStrategyCache.lookup(session.getMeetUrl(), variant);
+        String usedStrategy = null;
+        Boolean askResult = null;
+
+        if (cached != null) {
+            askResult = tryJoinStrategy(page, uuid, cached);
+            if (askResult != null) {
+                usedStrategy = cached;
+                log.info("[{}] Joined with cached strategy '{}'", uuid, cached);
+            } else {
+                joinStrategyCache.invalidate(uuid, session.getMeetUrl(), variant, cached);
             }
         }
-
-        // Try getByRole with flexible name
-        if (!joined) {
-            try {
-                Locator byRole = page.getByRole(com.microsoft.playwright.options.AriaRole.BUTTON,
-                        new Page.GetByRoleOptions().setName(Pattern.compile("join|ask to join|request to join|join now|join meeting", Pattern.CASE_INSENSITIVE)));
-                if (byRole.count() > 0 && byRole.first().isVisible()) {
-                    String buttonText = byRole.first().textContent().toLowerCase();
-                    byRole.first().click();
-                    log.info("[{}] Clicked join button via getByRole", uuid);
-                    askedToJoin = buttonText.contains("ask") || buttonText.contains("request");
-                    joined = true;
+        if (usedStrategy == null) {
+            for (String strategy : JOIN_STRATEGIES) {
+                if (strategy.equals(cached)) continue;
+                askResult = tryJoinStrategy(page, uuid, strategy);
+                if (askResult != null) {
+                    usedStrategy = strategy;
+                    break;
                 }
-            } catch (Exception e) {
-                log.debug("[{}] getByRole join button failed: {}", uuid, e.getMessage());
             }
         }
 
-        // Try inside iframes
-        if (!joined && page.frames().size() > 1) {
-            for (Frame frame : page.frames()) {
-                if (frame == page.mainFrame()) continue;
-                try {
-                    Locator inFrame = frame.locator("button[aria-label*='Join' i], button:has-text('Join'), [role='button']:has-text('Join')").first();
-                    inFrame.waitFor(new Locator.WaitForOptions().setTimeout(2000));
-                    if (inFrame.isVisible()) {
-                        inFrame.click();
-                        log.info("[{}] Clicked join button inside iframe", uuid);
-                        joined = true;
-                        break;
-                    }
-                } catch (Exception e) {
-                    // skip this frame
-                }
-            }
+        boolean joined = usedStrategy != null;
+        boolean askedToJoin = Boolean.TRUE.equals(askResult);
+        if (joined) {
+            boolean cacheHit = usedStrategy.equals(cached);
+            joinStrategyCache.learned(uuid, session.getMeetUrl(), variant, usedStrategy, cacheHit);
+            session.getMetrics().setJoinStrategy(usedStrategy);
+            session.getMetrics().setJoinStrategyCacheHit(cacheHit);
         }
 
         if (!joined) {
-            saveFailureScreenshot(page, uuid);
+            diagnostics.captureFailure(page, session, "join");
             throw new RuntimeException("Could not find any join button. The meeting page may not have loaded properly. Check screenshot.");
         }
 
         // Handle recording/Gemini consent dialogs that may appear after clicking join
         // (e.g. "This video call is being recorded and transcribed. Gemini is taking notes.")
-        Thread.sleep(2000);
+        // Wait for the page to react to the click: meeting UI, waiting room, consent or denial
+        waitForState(page, uuid, "s.inMeeting || s.waiting || s.denied || s.consent", 10000);
         handleRecordingConsentDialogs(page, uuid);
 
         // If we clicked "Ask to join", wait for host to admit us (up to 2 minutes)
         if (askedToJoin) {
+            long admissionStart = System.currentTimeMillis();
             log.info("[{}] Waiting for host to admit us into the meeting (up to {} seconds)...", uuid, admissionTimeoutSeconds);
             boolean admitted = waitForAdmission(page, uuid, admissionTimeoutSeconds);
             if (!admitted) {
-                saveFailureScreenshot(page, uuid);
+                diagnostics.captureFailure(page, session, "admission");
                 throw new RuntimeException("Host did not admit the bot within " + admissionTimeoutSeconds + " seconds. The bot requested to join but was not let in.");
             }
+            phaseDone(session, "admission", admissionStart);
+            session.getMetrics().setAdmissionWaitMs(System.currentTimeMillis() - admissionStart);
             log.info("[{}] Successfully admitted to meeting!", uuid);
-            
-            // Consent dialogs can appear AFTER admission with a delay.
-            // Wait long enough for them to render before checking.
-            Thread.sleep(2000);
-            handleRecordingConsentDialogs(page, uuid);
         }
 
-        // Wait for meeting to load
-        Thread.sleep(2000);
-        
-        // Final check for any late-appearing consent dialogs
-        handleRecordingConsentDialogs(page, uuid);
-        
-        try {
-            page.waitForLoadState(LoadState.NETWORKIDLE, new Page.WaitForLoadStateOptions().setTimeout(5000));
-        } catch (Exception e) {
-            log.debug("[{}] NETWORKIDLE timeout, continuing anyway", uuid);
+        // Wait for the in-meeting controls, then check for consent dialogs that render with them
+        if (!waitForState(page, uuid, "s.inMeeting", 10000)) {
+            log.info("[{}] In-meeting controls not detected within 10s, continuing anyway", uuid);
         }
+        handleRecordingConsentDialogs(page, uuid);
+        recordCallRate(session, "join", callsAtStart, joinStart);
         log.info("[{}] Successfully joined meeting", uuid);
     }
 
@@ -503,15 +807,8 @@ public class PlaywrightService {
                     (function() {
                         let result = { found: false, text: '', clicked: '', gotIt: false };
 
-                        // 1) Look for consent dialog text
-                        let consentPhrases = [
-                            'Gemini is taking notes',
-                            'being recorded and transcribed',
-                            'being recorded',
-                            'This video call is being recorded',
-                            'This call is being recorded',
-                            'recording in progress'
-                        ];
+                        // 1) Look for consent dialog text (phrases from the selector registry)
+                        let consentPhrases = __CONSENT_PHRASES__;
 
                         let body = document.body ? document.body.innerText : '';
                         for (let phrase of consentPhrases) {
@@ -556,9 +853,9 @@ public class PlaywrightService {
 
                         return JSON.stringify(result);
                     })()
-                    """;
+                    """.replace("__CONSENT_PHRASES__", selectorRegistry.getConsentPhrasesJs());
 
-                Object rawResult = page.evaluate(detectAndDismissJS);
+                Object rawResult = watchdog.call(uuid, "consent-check", () -> page.evaluate(detectAndDismissJS));
                 String resultStr = rawResult != null ? rawResult.toString() : "{}";
                 log.debug("[{}] Consent dialog JS result: {}", uuid, resultStr);
 
@@ -571,17 +868,18 @@ public class PlaywrightService {
                     if (joinClicked) {
                         log.info("[{}] Dismissed consent dialog via JS (clicked 'Join now')", uuid);
                         anyDismissed = true;
-                        Thread.sleep(1500);
+                        page.waitForTimeout(1500);
                     } else {
                         log.warn("[{}] Consent dialog detected but 'Join now' not found (attempt {}/{})", uuid, attempt, maxAttempts);
                         // Fallback: try Playwright locators
                         try {
                             Locator joinBtn = page.locator("text='Join now'");
-                            if (joinBtn.count() > 0 && joinBtn.last().isVisible()) {
+                            if (count(uuid, joinBtn) > 0 && joinBtn.last().isVisible()) {
+                                pace(page);
                                 joinBtn.last().click();
                                 log.info("[{}] Dismissed consent dialog via Playwright locator", uuid);
                                 anyDismissed = true;
-                                Thread.sleep(1500);
+                                page.waitForTimeout(1500);
                             }
                         } catch (Exception e) {
                             log.debug("[{}] Playwright fallback for consent failed: {}", uuid, e.getMessage());
@@ -593,7 +891,7 @@ public class PlaywrightService {
                     log.info("[{}] Dismissed 'Got it' notification", uuid);
                     foundDialog = true;
                     anyDismissed = true;
-                    Thread.sleep(500);
+                    page.waitForTimeout(500);
                 }
 
                 // If no dialog was found on this attempt, we're done
@@ -604,8 +902,9 @@ public class PlaywrightService {
                     break;
                 }
 
-                // Brief pause before checking for more dialogs
-                Thread.sleep(1000);
+                // Brief pause before checking for more dialogs (first-run notices are already
+                // dismissed in a seeded profile, so only meeting consent dialogs are left)
+                page.waitForTimeout(warmProfiles.contains(uuid) ? 500 : 1000);
 
             } catch (Exception e) {
                 log.debug("[{}] Error checking consent dialogs (attempt {}): {}", uuid, attempt, e.getMessage());
@@ -615,20 +914,253 @@ public class PlaywrightService {
         return anyDismissed;
     }
 
-    private void saveFailureScreenshot(Page page, String uuid) {
+    // Join-button strategies in priority order. Ids are "<kind>:<selector>" (or "role"/"iframe") and are
+    // what JoinStrategyCache stores. Direct join is preferred over "Ask to join".
+    private static final java.util.List<String> JOIN_STRATEGIES = java.util.List.of(
+            "direct:button[aria-label*='Join now' i]",
+            "direct:button[aria-label*='Join meeting' i]",
+            "direct:button:has-text('Join now')",
+            "direct:button:has-text('Join meeting')",
+            "direct:[role='button']:has-text('Join now')",
+            "ask:button[aria-label*='Ask to join' i]",
+            "ask:button[aria-label*='Request to join' i]",
+            "ask:button:has-text('Ask to join')",
+            "ask:button:has-text('Request to join')",
+            "ask:[role='button']:has-text('Ask to join')",
+            "ask:[role='button']:has-text('Request to join')",
+            "fallback:button:has-text('Join')",
+            "fallback:[role='button']:has-text('Join')",
+            "fallback:button[jsname='Qx7uuf']",
+            "fallback:[data-idom-class*='join'] button",
+            "fallback:span:has-text('Join now')",
+            "fallback:span:has-text('Ask to join')",
+            "role",
+            "iframe"
+    );
+
+    // Pre-join UI variant: which join button is offered, guest name field, iframes, page language
+    private static final String JOIN_UI_VARIANT_JS = """
+            () => {
+              const labels = Array.from(document.querySelectorAll('button, [role="button"]'))
+                  .map(b => ((b.getAttribute('aria-label') || '') + ' ' + (b.textContent || '')).toLowerCase());
+              const kind = labels.some(l => l.includes('join now')) ? 'join-now'
+                  : labels.some(l => /ask to join|request to join/.test(l)) ? 'ask' : 'other';
+              const name = document.querySelector("input[aria-label*='name' i], input[placeholder*='name' i]") ? 'name' : 'no-name';
+              const frames = window.frames.length > 0 ? 'frames' : 'no-frames';
+              return [kind, name, frames, document.documentElement.lang || 'unknown'].join('/');
+            }
+            """;
+
+    private String detectJoinUiVariant(Page page, String uuid) {
         try {
-            Path dir = Paths.get(transcriptPath);
-            Files.createDirectories(dir);
-            Path screenshotPath = dir.resolve("join-failed_" + uuid + "_" + System.currentTimeMillis() + ".png");
-            page.screenshot(new Page.ScreenshotOptions().setPath(screenshotPath));
-            log.warn("[{}] Join failed – screenshot saved to: {}", uuid, screenshotPath.toAbsolutePath());
+            Object variant = watchdog.call(uuid, "join-variant", () -> page.evaluate(JOIN_UI_VARIANT_JS));
+            return variant != null ? variant.toString() : null;
         } catch (Exception e) {
-            log.warn("[{}] Could not save failure screenshot: {}", uuid, e.getMessage());
+            log.debug("[{}] Could not detect pre-join UI variant: {}", uuid, e.getMessage());
+            return null;
         }
     }
 
     /**
-     * Wait for the host to admit us into the meeting after clicking "Ask to join"
+     * Click the join button found by one strategy, without waiting for it to appear.
+     * @return null if the strategy found nothing, otherwise whether it was an "Ask to join" button
+     */
+    private Boolean tryJoinStrategy(Page page, String uuid, String strategy) {
+        try {
+            if (strategy.equals("role")) {
+                Locator byRole = page.getByRole(com.microsoft.playwright.options.AriaRole.BUTTON,
+                        new Page.GetByRoleOptions().setName(Pattern.compile("join|ask to join|request to join|join now|join meeting", Pattern.CASE_INSENSITIVE)));
+                if (count(uuid, byRole) > 0 && byRole.first().isVisible()) {
+                    String buttonText = byRole.first().textContent().toLowerCase();
+                    pace(page);
+                    byRole.first().click();
+                    log.info("[{}] Clicked join button via getByRole", uuid);
+                    return buttonText.contains("ask") || buttonText.contains("request");
+                }
+                return null;
+            }
+            if (strategy.equals("iframe")) {
+                for (Frame frame : page.frames()) {
+                    if (frame == page.mainFrame()) continue;
+                    try {
+                        Locator inFrame = frame.locator("button[aria-label*='Join' i], button:has-text('Join'), [role='button']:has-text('Join')").first();
+                        inFrame.waitFor(new Locator.WaitForOptions().setTimeout(2000));
+                        if (inFrame.isVisible()) {
+                            pace(page);
+                            inFrame.click();
+                            log.info("[{}] Clicked join button inside iframe", uuid);
+                            return false;
+                        }
+                    } catch (Exception e) {
+                        // skip this frame
+                    }
+                }
+                return null;
+            }
+
+            int colon = strategy.indexOf(':');
+            if (colon < 0) {
+                return null;
+            }
+            String kind = strategy.substring(0, colon);
+            String selector = strategy.substring(colon + 1);
+            Locator joinButton = page.locator(selector).first();
+            if (count(uuid, joinButton) > 0 && joinButton.isVisible()) {
+                String buttonText = kind.equals("fallback") ? joinButton.textContent().toLowerCase() : "";
+                pace(page);
+                joinButton.click();
+                log.info("[{}] Clicked {} join button: {}", uuid, kind, selector);
+                return kind.equals("ask") || buttonText.contains("ask") || buttonText.contains("request");
+            }
+        } catch (Exception e) {
+            log.debug("[{}] Join strategy '{}' failed: {}", uuid, strategy, e.getMessage());
+        }
+        return null;
+    }
+
+    private static final long PREJOIN_READY_TIMEOUT_MS = 15000;
+
+    // Google's sign-in page or consent wall instead of the meeting: what stale or broken seeded cookies look like
+    private static final String BAD_STATE_JS = """
+            () => /(^|\\.)(accounts|consent)\\.google\\.com$/.test(location.hostname)
+                || /Before you continue to Google|Sign in to continue|Choose an account/i.test(document.body ? document.body.innerText : '')
+            """;
+
+    /**
+     * True if the page shows a sign-in page or consent wall (checked after a seeded join failed).
+     */
+    private boolean showsBadState(Page page, String uuid) {
+        if (page == null || page.isClosed() || watchdog.isAborted(uuid)) {
+            return false;
+        }
+        try {
+            return Boolean.TRUE.equals(watchdog.call(uuid, "bad-state", () -> page.evaluate(BAD_STATE_JS)));
+        } catch (Exception e) {
+            log.debug("[{}] Could not check the page for a sign-in or consent wall: {}", uuid, e.getMessage());
+            return false;
+        }
+    }
+
+    // Pre-join screen is usable: a join/ask button or the name field, or a page saying we can't join
+    static final String PREJOIN_READY_JS = """
+            () => {
+              const text = document.body ? document.body.innerText : '';
+              if (/can't join this video call|Return(ing)? to home screen/i.test(text)) return true;
+              for (const el of document.querySelectorAll('button, [role="button"], input')) {
+                const label = [el.getAttribute('aria-label'), el.getAttribute('placeholder'), el.textContent]
+                    .join(' ').toLowerCase();
+                if (/join now|join meeting|ask to join|request to join|your name/.test(label)) return true;
+              }
+              return false;
+            }
+            """;
+
+    private static final String CAPTION_CONTROL_JS = """
+            () => !!document.querySelector("button[aria-label*='caption' i], button[aria-label*='subtitle' i]")
+            """;
+
+    /**
+     * Wait until a DOM predicate is true, polling every 100 ms for at most timeoutMs.
+     * Returns false on timeout (or if the page is gone) instead of throwing.
+     */
+    private boolean waitForCondition(Page page, String uuid, String predicate, long timeoutMs) {
+        try {
+            watchdog.call(uuid, "wait-condition", timeoutMs + 5000, () -> page.waitForFunction(predicate, null,
+                    new Page.WaitForFunctionOptions().setTimeout(timeoutMs).setPollingInterval(100)));
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Current page state from the registry's state probe: one evaluate instead of a locator count per selector.
+     */
+    private PageState pageState(Page page, String uuid) {
+        Object probe = watchdog.call(uuid, "page-state", () -> page.evaluate(selectorRegistry.getStateProbeScript()));
+        return probe instanceof Map<?, ?> map ? PageState.from(map) : new PageState();
+    }
+
+    /**
+     * Wait until a condition on the page state holds, e.g. "s.inMeeting || s.denied"; evaluated in the page.
+     */
+    private boolean waitForState(Page page, String uuid, String condition, long timeoutMs) {
+        String predicate = "() => { const s = (" + selectorRegistry.getStateProbeScript() + ")(); return " + condition + "; }";
+        return waitForCondition(page, uuid, predicate, timeoutMs);
+    }
+
+    /**
+     * Pace UI interactions like a person would; Meet drops input that arrives faster than it renders.
+     */
+    private void pace(Page page) {
+        if (uiPacingMs > 0) {
+            page.waitForTimeout(uiPacingMs);
+        }
+    }
+
+    /**
+     * Wait (bounded) until a toggled control no longer matches, e.g. "Turn off camera" after clicking it.
+     */
+    private void waitUntilGone(Locator locator, long timeoutMs) {
+        try {
+            locator.first().waitFor(new Locator.WaitForOptions()
+                    .setState(WaitForSelectorState.HIDDEN).setTimeout(timeoutMs));
+        } catch (Exception ignored) {}
+    }
+
+    /**
+     * Record how long a join phase took (first join only; re-joins have their own latency metric).
+     */
+    private long phaseDone(MeetingSession session, String phase, long since) {
+        long now = System.currentTimeMillis();
+        session.getMetrics().getJoinPhaseMs().putIfAbsent(phase, now - since);
+        return now;
+    }
+
+    /**
+     * Page calls (driver round trips under the watchdog) per second spent in a loop.
+     */
+    private void recordCallRate(MeetingSession session, String loop, long callsAtStart, long since) {
+        long elapsed = System.currentTimeMillis() - since;
+        if (elapsed > 0) {
+            long calls = session.getMetrics().getWatchedCalls() - callsAtStart;
+            session.getMetrics().getPageCallsPerSecond().put(loop, Math.round(calls * 10000.0 / elapsed) / 10.0);
+        }
+    }
+
+    // How long one in-page admission watch may run before control returns to Java (progress log, stop/loss checks)
+    private static final long ADMISSION_WATCH_SLICE_MS = 15000;
+
+    // Resolves with the page state as soon as a DOM mutation shows we are in, refused or the meeting ended,
+    // or with the current state after maxMs. __STATE_PROBE__ is the registry's state probe.
+    private static final String ADMISSION_WATCH_JS = """
+            (maxMs) => new Promise(resolve => {
+              const probe = __STATE_PROBE__;
+              const settled = s => s.inMeeting || s.denied || s.ended;
+              const first = probe();
+              if (settled(first)) { resolve(first); return; }
+              let scheduled = false;
+              let timer;
+              const observer = new MutationObserver(() => {
+                // Coalesce mutation bursts into one probe
+                if (scheduled) return;
+                scheduled = true;
+                setTimeout(() => {
+                  scheduled = false;
+                  const s = probe();
+                  if (settled(s)) finish(s);
+                }, 50);
+              });
+              const finish = s => { observer.disconnect(); clearTimeout(timer); resolve(s); };
+              observer.observe(document.documentElement, {childList: true, subtree: true, attributes: true, characterData: true});
+              timer = setTimeout(() => finish(probe()), maxMs);
+            })
+            """;
+
+    /**
+     * Wait for the host to admit us into the meeting after clicking "Ask to join". A MutationObserver in the
+     * page reports admission or denial as soon as the DOM shows it; Java only regains control every
+     * {@link #ADMISSION_WATCH_SLICE_MS} to log progress and notice a stop request or a lost page.
      * @param page The Playwright page
      * @param uuid Meeting UUID for logging
      * @param timeoutSeconds Maximum seconds to wait for admission
@@ -636,93 +1168,55 @@ public class PlaywrightService {
      */
     private boolean waitForAdmission(Page page, String uuid, int timeoutSeconds) {
         long startTime = System.currentTimeMillis();
-        long timeoutMs = timeoutSeconds * 1000L;
-        int checkCount = 0;
-        
-        while (System.currentTimeMillis() - startTime < timeoutMs) {
-            checkCount++;
+        long deadline = startTime + timeoutSeconds * 1000L;
+        String watchJs = ADMISSION_WATCH_JS.replace("__STATE_PROBE__", selectorRegistry.getStateProbeScript());
+        AtomicBoolean stopFlag = stopFlags.get(uuid);
+        AtomicReference<String> lost = pageLost.get(uuid);
+
+        while (System.currentTimeMillis() < deadline) {
+            if ((stopFlag != null && stopFlag.get()) || (lost != null && lost.get() != null) || watchdog.isAborted(uuid)) {
+                log.warn("[{}] Stopped waiting for admission (meeting stopped or page lost)", uuid);
+                return false;
+            }
+            long slice = Math.min(ADMISSION_WATCH_SLICE_MS, deadline - System.currentTimeMillis());
             try {
-                // Check if we were denied or the meeting blocked us
-                if (page.locator("text='You can't join this video call'").count() > 0
-                        || page.locator("text='Return to home screen'").count() > 0
-                        || page.locator("text='Returning to home screen'").count() > 0
-                        || page.locator("text='You were removed from the meeting'").count() > 0
-                        || page.locator("text='denied your request'").count() > 0) {
+                Object probe = watchdog.call(uuid, "admission-watch", slice + 5000, () -> page.evaluate(watchJs, slice));
+                PageState state = probe instanceof Map<?, ?> map ? PageState.from(map) : new PageState();
+                if (state.isDenied() || state.isEnded()) {
                     log.warn("[{}] Request to join was denied or meeting blocked access", uuid);
                     return false;
                 }
-                
-                // Check if we're in the meeting (indicators that we've been admitted)
-                // Look for meeting controls that only appear when you're IN the meeting
-                boolean inMeeting = false;
-                
-                // Check for leave/end call button (only visible when in meeting)
-                if (page.locator("button[aria-label*='Leave call' i]").count() > 0
-                        || page.locator("button[aria-label*='Leave meeting' i]").count() > 0
-                        || page.locator("[aria-label*='Leave call' i]").count() > 0
-                        || page.locator("[data-tooltip*='Leave call' i]").count() > 0) {
-                    inMeeting = true;
-                }
-                
-                // Check for captions/CC button (only in meeting)
-                if (!inMeeting && (page.locator("button[aria-label*='caption' i]").count() > 0
-                        || page.locator("button[aria-label*='subtitle' i]").count() > 0)) {
-                    inMeeting = true;
-                }
-                
-                // Check for participant list / people button (only in meeting)
-                if (!inMeeting && (page.locator("button[aria-label*='people' i]").count() > 0
-                        || page.locator("button[aria-label*='participant' i]").count() > 0)) {
-                    inMeeting = true;
-                }
-                
-                // Check for meeting title/info that appears when in meeting
-                if (!inMeeting && page.locator("[data-meeting-title]").count() > 0) {
-                    inMeeting = true;
-                }
-                
-                if (inMeeting) {
+
+                // Controls that only appear when you're IN the meeting (leave button, captions/people buttons, meeting title)
+                if (state.isInMeeting()) {
                     log.info("[{}] Detected meeting UI - we have been admitted!", uuid);
                     return true;
                 }
-                
-                // Still waiting - check for "waiting" indicators
-                if (page.locator("text='Waiting for someone to let you in'").count() > 0
-                        || page.locator("text='Asking to be let in'").count() > 0
-                        || page.locator("text='Someone will let you in soon'").count() > 0
-                        || page.locator("text='waiting'").count() > 0) {
-                    if (checkCount % 10 == 0) { // Log every 10 checks (~30 seconds)
-                        long elapsed = (System.currentTimeMillis() - startTime) / 1000;
-                        log.info("[{}] Still waiting for host to admit... ({} seconds elapsed)", uuid, elapsed);
-                    }
-                }
-                
-                // Wait 3 seconds before checking again
-                Thread.sleep(3000);
-                
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                return false;
+
+                long elapsed = (System.currentTimeMillis() - startTime) / 1000;
+                log.info("[{}] Still waiting for host to admit... ({} seconds elapsed{})", uuid, elapsed,
+                        state.isWaiting() ? "" : ", waiting-room text not shown");
             } catch (Exception e) {
-                log.debug("[{}] Error during admission check: {}", uuid, e.getMessage());
+                // Evaluation context replaced (e.g. Meet re-rendered the page) - start a new watch shortly
+                log.debug("[{}] Error during admission watch: {}", uuid, e.getMessage());
                 try {
-                    Thread.sleep(3000);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
+                    page.waitForTimeout(500);
+                } catch (Exception ignored) {
                     return false;
                 }
             }
         }
-        
+
         log.warn("[{}] Timed out waiting for host to admit after {} seconds", uuid, timeoutSeconds);
         return false;
     }
 
-    private void enableCaptions(Page page, String uuid) throws Exception {
+    private void enableCaptions(Page page, MeetingSession session) throws Exception {
+        String uuid = session.getUuid();
         log.info("[{}] Enabling captions", uuid);
 
-        // Wait for meeting UI to be fully ready after join
-        Thread.sleep(2000);
+        // Wait until the caption control is rendered (the meeting toolbar is ready)
+        waitForCondition(page, uuid, CAPTION_CONTROL_JS, 5000);
 
         // Check for late-appearing consent dialogs BEFORE attempting captions
         // (these dialogs block the entire UI including keyboard shortcuts)
@@ -745,9 +1239,9 @@ public class PlaywrightService {
             try {
                 log.info("[{}] Pressing 'c' to enable captions (attempt {}/{})", uuid, attempt, maxRetries);
                 focusMeetingContent(page, uuid);
-                Thread.sleep(200);
+                pace(page);
                 page.keyboard().press("c");
-                Thread.sleep(800);
+                waitForState(page, uuid, "s.captionsOn", 1500);
 
                 if (areCaptionsAlreadyOn(page, uuid)) {
                     captionsEnabled = true;
@@ -764,12 +1258,12 @@ public class PlaywrightService {
                 if (dismissed) {
                     log.info("[{}] Late consent dialog dismissed, retrying captions...", uuid);
                     focusMeetingContent(page, uuid);
-                    Thread.sleep(500);
+                    page.waitForTimeout(500);
                 }
             }
 
             if (!captionsEnabled && attempt < maxRetries) {
-                Thread.sleep(500);
+                page.waitForTimeout(500);
             }
         }
 
@@ -783,16 +1277,16 @@ public class PlaywrightService {
             boolean dismissed = handleRecordingConsentDialogs(page, uuid);
             if (dismissed) {
                 log.info("[{}] Consent dialog was still blocking -- retrying captions after dismissal", uuid);
-                Thread.sleep(1000);
+                page.waitForTimeout(1000);
                 focusMeetingContent(page, uuid);
 
                 // Retry keyboard shortcut
                 for (int attempt = 1; attempt <= 3 && !captionsEnabled; attempt++) {
                     try {
                         focusMeetingContent(page, uuid);
-                        Thread.sleep(200);
+                        pace(page);
                         page.keyboard().press("c");
-                        Thread.sleep(800);
+                        waitForState(page, uuid, "s.captionsOn", 1500);
                         if (areCaptionsAlreadyOn(page, uuid)) {
                             captionsEnabled = true;
                             log.info("[{}] Captions enabled on retry after consent dismissal!", uuid);
@@ -811,18 +1305,8 @@ public class PlaywrightService {
 
         if (!captionsEnabled) {
             log.error("[{}] FAILED to enable captions after all attempts. Transcription may not work!", uuid);
-            try {
-                Path dir = Paths.get(transcriptPath);
-                Files.createDirectories(dir);
-                Path screenshotPath = dir.resolve("captions-failed_" + uuid + "_" + System.currentTimeMillis() + ".png");
-                page.screenshot(new Page.ScreenshotOptions().setPath(screenshotPath));
-                log.warn("[{}] Screenshot saved to: {}", uuid, screenshotPath.toAbsolutePath());
-            } catch (Exception e) {
-                log.debug("[{}] Could not save screenshot: {}", uuid, e.getMessage());
-            }
+            diagnostics.captureFailure(page, session, "captions");
         }
-
-        Thread.sleep(500);
     }
 
     /**
@@ -841,15 +1325,16 @@ public class PlaywrightService {
             for (String selector : focusSelectors) {
                 try {
                     Locator el = page.locator(selector);
-                    if (el.count() > 0) {
+                    if (count(uuid, el) > 0) {
+                        pace(page);
                         el.first().click(new Locator.ClickOptions().setTimeout(2000));
-                        Thread.sleep(100);
+                        page.waitForTimeout(100);
                         return;
                     }
                 } catch (Exception ignored) {}
             }
             // Fallback: focus body via JS
-            page.evaluate("document.body.focus()");
+            watchdog.call(uuid, "focus", () -> page.evaluate("document.body.focus()"));
         } catch (Exception e) {
             log.debug("[{}] Focus meeting content: {}", uuid, e.getMessage());
         }
@@ -870,8 +1355,9 @@ public class PlaywrightService {
                 Locator btn = page.locator(selector).first();
                 btn.waitFor(new Locator.WaitForOptions().setTimeout(3000));
                 if (btn.isVisible()) {
+                    pace(page);
                     btn.click();
-                    Thread.sleep(500);
+                    waitForState(page, uuid, "s.captionsOn", 1500);
                     if (areCaptionsAlreadyOn(page, uuid)) {
                         log.info("[{}] Captions enabled via CC button", uuid);
                         return true;
@@ -897,7 +1383,7 @@ public class PlaywrightService {
             
             for (String selector : captionsOnIndicators) {
                 try {
-                    if (page.locator(selector).count() > 0) {
+                    if (count(page, uuid, selector) > 0) {
                         log.debug("[{}] Found captions-on indicator: {}", uuid, selector);
                         return true;
                     }
@@ -916,7 +1402,7 @@ public class PlaywrightService {
             for (String selector : captionContainerSelectors) {
                 try {
                     Locator container = page.locator(selector);
-                    if (container.count() > 0 && container.first().isVisible()) {
+                    if (count(uuid, container) > 0 && container.first().isVisible()) {
                         log.debug("[{}] Found visible caption container: {}", uuid, selector);
                         return true;
                     }
@@ -929,89 +1415,166 @@ public class PlaywrightService {
         }
     }
 
-    private void captureTranscripts(Page page, MeetingSession session) throws Exception {
+    private String captureTranscripts(MeetingBrowser mb, MeetingSession session) throws Exception {
+        Page page = mb.page;
         String uuid = session.getUuid();
         log.info("[{}] Starting transcript capture until: {}", uuid, session.getEndTime());
 
         AtomicBoolean stopFlag = stopFlags.get(uuid);
-        String pendingText = "";  // Accumulates all caption text
+        AtomicReference<String> lost = pageLost.get(uuid);
+        String lostReason = null;
+        CaptionStream stream = new CaptionStream();  // All caption text of this run, built from deltas
+        int run = session.getMetrics().getRejoins();
+        int loggedLength = 0;
         int loopCount = 0;
         long lastDebugTime = 0;
+        long captureStart = System.currentTimeMillis();
+        long callsAtStart = session.getMetrics().getWatchedCalls();
+        long lastCaptionEvent = 0;
+        java.util.List<CaptionEvent> captions = new java.util.ArrayList<>();
 
-        // Take initial debug screenshot
-        // Debug screenshots disabled
-        // saveDebugScreenshot(page, uuid, "capture-start");
+        // Debug snapshots (meeting.diagnostics.debug-snapshots); the first one includes the page HTML
+        diagnostics.captureDebug(page, session, "capture-start", true);
 
         while (!stopFlag.get() && ZonedDateTime.now().isBefore(session.getEndTime())) {
             loopCount++;
             try {
-                // Check if still in meeting
-                if (isKickedOrMeetingEnded(page)) {
-                    log.info("[{}] Meeting ended or kicked out", uuid);
+                // Page crashed, was closed under us or stalled: stop here so the meeting can be re-joined
+                if (lost.get() != null || watchdog.isAborted(uuid)) {
+                    lostReason = lost.get() != null ? lost.get() : "page stalled";
                     break;
                 }
 
-                // Extract caption using JavaScript
-                String[] captionData = extractCaptionViaJS(page, uuid);
-                String speaker = captionData[0];
-                String text = captionData[1];
+                if (resourceSampler.isDue(session)) {
+                    sampleResources(mb, session);
+                }
 
-                // DEBUG: Log every 30 iterations (~9 seconds) what we're getting
+                // Nobody left to transcribe: leave now and give the capacity back
+                if (mb.idle.isCheckDue()) {
+                    MeetingSession.EndReason idleReason = mb.idle.check(pageState(page, uuid));
+                    if (idleReason != null) {
+                        leaveEarly(session, idleReason);
+                        break;
+                    }
+                }
+
+                // Pushed caption changes first; the full probe (meeting-ended check and caption
+                // extraction) runs every tick without push, otherwise only when the observer was quiet
+                captions.clear();
                 long now = System.currentTimeMillis();
-                if (now - lastDebugTime > 10000) {
-                    log.info("[{}] DEBUG loop#{}: speaker='{}', text='{}' (len={})", 
-                            uuid, loopCount, speaker, 
-                            text != null && text.length() > 50 ? text.substring(0, 50) + "..." : text,
-                            text != null ? text.length() : 0);
-                    lastDebugTime = now;
-                    // Periodic screenshots disabled
-                    // if (loopCount % 100 == 0) {
-                    //     saveDebugScreenshot(page, uuid, "capture-loop-" + loopCount);
-                    // }
+                CaptionEvent pushed;
+                while (mb.captionEvents != null && (pushed = mb.captionEvents.poll()) != null) {
+                    captions.add(pushed);
+                    session.getMetrics().setCaptionPushEvents(session.getMetrics().getCaptionPushEvents() + 1);
+                    lastCaptionEvent = now;
+                }
+                if (mb.captionEvents == null || now - lastCaptionEvent >= captionFallbackPollMs) {
+                    captions.add(extractCaptionViaJS(mb, session));
+                    session.getMetrics().setCaptionPolls(session.getMetrics().getCaptionPolls() + 1);
+                    lastCaptionEvent = now;
                 }
+                if (captions.stream().anyMatch(CaptionEvent::isEnded)) {
+                    log.info("[{}] Meeting ended or kicked out", uuid);
+                    session.setEndReason(MeetingSession.EndReason.MEETING_ENDED);
+                    break;
+                }
+
+                for (CaptionEvent event : captions) {
+                    String speaker = event.getSpeaker();
+                    String text = event.getText();
+
+                    // Probe results are deltas against the page cursor; locator results are whole windows.
+                    // UI text is dropped line by line when the stream is parsed
+                    boolean changed = event.isDelta() ? stream.apply(event) : stream.applyWindow(event);
+
+                    // DEBUG: Log every 30 iterations (~9 seconds) what we're getting
+                    if (now - lastDebugTime > 10000) {
+                        log.info("[{}] DEBUG loop#{}: speaker='{}', delta='{}' (len={}), stream {} chars", 
+                                uuid, loopCount, speaker, 
+                                text.length() > 50 ? text.substring(0, 50) + "..." : text,
+                                text.length(), stream.length());
+                        lastDebugTime = now;
+                        if (loopCount % 100 == 0) {
+                            diagnostics.captureDebug(page, session, "capture-loop-" + loopCount, false);
+                        }
+                    }
                 
-                if (text != null && !text.isEmpty() && isValidCaptionText(text)) {
-                    // Only log when text has grown/changed significantly
-                    if (text.length() > pendingText.length() + 20 || 
-                        (!text.startsWith(pendingText.isEmpty() ? "" : pendingText.substring(0, Math.min(20, pendingText.length()))))) {
-                        log.info("[{}] Caption updated: {} chars", uuid, text.length());
+                    if (changed) {
+                        event.setRun(run);
+                        Consumer<CaptionEvent> listener = captionListeners.get(uuid);
+                        if (listener != null) {
+                            listener.accept(event);
+                        }
                     }
-                    
-                    // Keep the longest/latest caption text (it accumulates all speakers)
-                    if (text.length() >= pendingText.length()) {
-                        pendingText = text;
+                    if (changed && stream.length() > 0) {
+                        mb.idle.captionActivity();
+                        if (session.getMetrics().getFirstCaptionLatencyMs() == null) {
+                            long latencyMs = java.time.Duration.between(session.getStartTime(), ZonedDateTime.now()).toMillis();
+                            session.getMetrics().setFirstCaptionLatencyMs(latencyMs);
+                            log.info("[{}] First caption captured {} ms after scheduled start", uuid, latencyMs);
+                        }
+                        // Only log when the stream has grown significantly
+                        if (stream.length() > loggedLength + 200) {
+                            log.info("[{}] Caption stream: {} chars", uuid, stream.length());
+                            loggedLength = stream.length();
+                        }
                     }
                 }
 
-                // Small delay
-                Thread.sleep(300);
+                // Small delay (also delivers pushed caption changes)
+                page.waitForTimeout(300);
 
             } catch (Exception e) {
+                if (watchdog.isAborted(uuid) || lost.get() != null) {
+                    // The page is gone (torn down by the watchdog or crashed); keep what was captured so far
+                    lostReason = lost.get() != null ? lost.get() : "page stalled";
+                    log.warn("[{}] Meeting page lost ({}), ending capture: {}", uuid, lostReason, e.getMessage());
+                    break;
+                }
                 log.warn("[{}] Error during capture loop: {}", uuid, e.getMessage());
                 Thread.sleep(500);
             }
         }
         
-        // Save any remaining pending caption - parse into speaker turns
-        if (!pendingText.isEmpty()) {
-            parseAndSaveTranscripts(session, pendingText, uuid);
+        // Save the captured caption stream - parse into speaker turns
+        if (stream.length() > 0) {
+            parseAndSaveTranscripts(session, stream, uuid);
+        }
+        IntConsumer runSaved = runSavedListeners.get(uuid);
+        if (runSaved != null) {
+            runSaved.accept(run);
         }
+        session.getMetrics().setCaptionDeltas(session.getMetrics().getCaptionDeltas() + stream.getDeltas());
+        session.getMetrics().setCaptionChars(session.getMetrics().getCaptionChars() + stream.length());
 
-        // Debug screenshots disabled
-        // saveDebugScreenshot(page, uuid, "capture-end");
+        diagnostics.captureDebug(page, session, "capture-end", false);
         
+        recordCallRate(session, "capture", callsAtStart, captureStart);
         log.info("[{}] Transcript capture ended. Total entries: {}", uuid, session.getTranscripts().size());
+        log.info("[{}] Network filter: {} requests blocked, {} passed", uuid,
+                session.getMetrics().getBlockedRequests(), session.getMetrics().getPassedRequests());
+        return lostReason;
     }
 
     /**
-     * Parse raw caption text containing multiple speakers and save as individual transcript entries.
-     * Handles both newline-separated and inline speaker names (including lowercase).
+     * Record an early leave and the scheduled meeting time it frees up.
      */
-    private void parseAndSaveTranscripts(MeetingSession session, String rawText, String uuid) {
-        if (rawText == null || rawText.isEmpty()) return;
-        
-        // Replace literal \n with actual newlines
-        String text = rawText.replace("\\n", "\n");
+    private void leaveEarly(MeetingSession session, MeetingSession.EndReason reason) {
+        long savedSeconds = Math.max(0, java.time.Duration.between(ZonedDateTime.now(), session.getEndTime()).toSeconds());
+        session.setEndReason(reason);
+        session.getMetrics().setEarlyLeaveSavedSeconds(savedSeconds);
+        log.info("[{}] Leaving early ({}), {} s before the scheduled end", session.getUuid(), reason, savedSeconds);
+    }
+
+    /**
+     * Parse the caption stream containing multiple speakers and save as individual transcript entries.
+     * Handles both newline-separated and inline speaker names (including lowercase). Each entry is
+     * timestamped with the arrival of its first words and lists the caption events its text came from. Also used by the main service for the captions
+     * a worker process streamed but did not get to save.
+     */
+    public void parseAndSaveTranscripts(MeetingSession session, CaptionStream stream, String uuid) {
+        String text = withoutUiLines(stream.getText());
+        if (text.isBlank()) return;
         
         // Collect known speaker names from the text (both Title Case and lowercase)
         // Pattern matches: "Firstname Lastname" at start of line OR after newline
@@ -1057,11 +1620,12 @@ public class PlaywrightService {
         if (knownNames.isEmpty()) {
             // No names found - save as single Unknown entry
             String cleanText = text.replace("\n", " ").replaceAll("\\s+", " ").trim();
-            if (!cleanText.isEmpty() && isValidCaptionText(cleanText)) {
+            if (!cleanText.isEmpty()) {
                 entries.add(TranscriptEntry.builder()
                         .speaker("Unknown")
                         .text(cleanText)
-                        .timestamp(LocalDateTime.now())
+                        .timestamp(stream.timeAt(0))
+                        .captions(stream.spans(0, text.length()))
                         .build());
             }
         } else {
@@ -1087,24 +1651,29 @@ public class PlaywrightService {
             java.util.regex.Matcher matcher = splitPattern.matcher(text);
             
             java.util.List<String> allParts = new java.util.ArrayList<>();
+            java.util.List<Integer> partOffsets = new java.util.ArrayList<>();
             int lastEnd = 0;
             while (matcher.find()) {
                 if (matcher.start() > lastEnd) {
                     allParts.add(text.substring(lastEnd, matcher.start()));
+                    partOffsets.add(lastEnd);
                 }
                 allParts.add(matcher.group().trim());
+                partOffsets.add(matcher.start());
                 lastEnd = matcher.end();
             }
             if (lastEnd < text.length()) {
                 allParts.add(text.substring(lastEnd));
+                partOffsets.add(lastEnd);
             }
             
             // Process parts: name followed by text
             String currentSpeaker = "Unknown";
             StringBuilder currentText = new StringBuilder();
+            int currentOffset = 0;
             
-            for (String part : allParts) {
-                String trimmed = part.trim();
+            for (int i = 0; i < allParts.size(); i++) {
+                String trimmed = allParts.get(i).trim();
                 if (trimmed.isEmpty()) continue;
                 
                 // Check if this part is a speaker name
@@ -1115,11 +1684,12 @@ public class PlaywrightService {
                         // Save previous
                         if (currentText.length() > 0) {
                             String spokenText = currentText.toString().replaceAll("\\s+", " ").trim();
-                            if (!spokenText.isEmpty() && isValidCaptionText(spokenText)) {
+                            if (!spokenText.isEmpty()) {
                                 entries.add(TranscriptEntry.builder()
                                         .speaker(toTitleCase(currentSpeaker))
                                         .text(spokenText)
-                                        .timestamp(LocalDateTime.now())
+                                        .timestamp(stream.timeAt(currentOffset))
+                                        .captions(stream.spans(currentOffset, partOffsets.get(i)))
                                         .build());
                             }
                             currentText = new StringBuilder();
@@ -1131,6 +1701,7 @@ public class PlaywrightService {
                 
                 if (!isName) {
                     if (currentText.length() > 0) currentText.append(" ");
+                    else currentOffset = partOffsets.get(i);
                     currentText.append(trimmed);
                 }
             }
@@ -1138,11 +1709,12 @@ public class PlaywrightService {
             // Save last entry
             if (currentText.length() > 0) {
                 String spokenText = currentText.toString().replaceAll("\\s+", " ").trim();
-                if (!spokenText.isEmpty() && isValidCaptionText(spokenText)) {
+                if (!spokenText.isEmpty()) {
                     entries.add(TranscriptEntry.builder()
                             .speaker(toTitleCase(currentSpeaker))
                             .text(spokenText)
-                            .timestamp(LocalDateTime.now())
+                            .timestamp(stream.timeAt(currentOffset))
+                            .captions(stream.spans(currentOffset, text.length()))
                             .build());
                 }
             }
@@ -1179,47 +1751,61 @@ public class PlaywrightService {
         return result.toString();
     }
 
-    private void saveDebugScreenshot(Page page, String uuid, String label) {
-        try {
-            Path dir = Paths.get(transcriptPath);
-            Files.createDirectories(dir);
-            Path screenshotPath = dir.resolve("debug_" + uuid + "_" + label + "_" + System.currentTimeMillis() + ".png");
-            page.screenshot(new Page.ScreenshotOptions().setPath(screenshotPath).setFullPage(true));
-            log.info("[{}] Debug screenshot saved: {}", uuid, screenshotPath.getFileName());
-            
-            // Also save HTML for analysis
-            if ("capture-start".equals(label)) {
-                try {
-                    String html = page.content();
-                    Path htmlPath = dir.resolve("debug_" + uuid + "_page.html");
-                    Files.writeString(htmlPath, html);
-                    log.info("[{}] Debug HTML saved: {}", uuid, htmlPath.getFileName());
-                } catch (Exception e) {
-                    log.debug("[{}] Could not save HTML: {}", uuid, e.getMessage());
-                }
-            }
-        } catch (Exception e) {
-            log.warn("[{}] Could not save debug screenshot: {}", uuid, e.getMessage());
-        }
-    }
-
     /**
-     * Extract caption text using JavaScript - runs in main page and all iframes (Meet often puts captions in iframe).
-     * Returns [speaker, text].
+     * Extract caption text using the registry's page probe - runs in main page and all iframes (Meet often puts captions in iframe).
+     * Returns a delta event from the probe, or a whole window from the locator fallback; ended is set once the
+     * main frame shows the meeting is over. That check runs on the main frame every poll, whatever frame the
+     * captions are in.
+     * The frame/method (or locator) that last found captions is tried alone first; the full scan runs
+     * when there is none yet or it missed CAPTION_AFFINITY_MISS_LIMIT ticks in a row. A full scan that
+     * finds nothing (silence) keeps the remembered target.
      */
-    private String[] extractCaptionViaJS(Page page, String uuid) {
-        String js = getCaptionExtractionJS();
-        // 1) Try main frame first
-        String[] result = evaluateCaptionJS(page.mainFrame(), js, uuid);
-        if (result != null && !result[1].isEmpty()) return result;
+    private CaptionEvent extractCaptionViaJS(MeetingBrowser mb, MeetingSession session) {
+        Page page = mb.page;
+        String uuid = session.getUuid();
+        CaptionAffinity affinity = mb.captionAffinity;
+        MeetingMetrics metrics = session.getMetrics();
+        boolean useAffinity = affinity.hasTarget() && affinity.misses < CAPTION_AFFINITY_MISS_LIMIT;
+
+        // Captions in the main frame: one probe call answers both; otherwise the ended check runs on its own
+        boolean captionsInMain = !useAffinity || affinity.locator == null && affinity.frame == page.mainFrame();
+        if (!captionsInMain) {
+            CaptionEvent ended = evaluateCaptionJS(page, page.mainFrame(), session, -1, "ended");
+            if (ended.isEnded()) return ended;
+        }
+
+        if (useAffinity) {
+            CaptionEvent event = affinity.locator != null
+                    ? captionViaLocator(page, affinity.locator, uuid)
+                    : evaluateCaptionJS(page, affinity.frame, session, affinity.method, captionsInMain ? "" : "captions");
+            if (event != null && (event.isEnded() || event.foundCaptions())) {
+                metrics.setCaptionAffinityHits(metrics.getCaptionAffinityHits() + 1);
+                affinity.misses = 0;
+                return event;
+            }
+            metrics.setCaptionAffinityMisses(metrics.getCaptionAffinityMisses() + 1);
+            affinity.misses++;
+            return noCaption(uuid);
+        }
+        metrics.setCaptionFullScans(metrics.getCaptionFullScans() + 1);
+        affinity.misses = 0;
+
+        // 1) Try main frame first (with the ended check); its result stands unless another frame has captions
+        CaptionEvent mainEvent = evaluateCaptionJS(page, page.mainFrame(), session, -1, "");
+        if (mainEvent.isEnded()) return mainEvent;
+        if (mainEvent.foundCaptions()) {
+            affinity.remember(page.mainFrame(), mainEvent.getMethod());
+            return mainEvent;
+        }
         // 2) Try each iframe (Google Meet often renders meeting + captions inside an iframe)
         for (Frame frame : page.frames()) {
             if (frame == page.mainFrame()) continue;
             try {
-                result = evaluateCaptionJS(frame, js, uuid);
-                if (result != null && !result[1].isEmpty()) {
-                    log.info("[{}] Caption found in iframe: {}", uuid, result[1].substring(0, Math.min(50, result[1].length())));
-                    return result;
+                CaptionEvent event = evaluateCaptionJS(page, frame, session, -1, "captions");
+                if (event.foundCaptions()) {
+                    log.info("[{}] Caption found in iframe (method {})", uuid, event.getMethod());
+                    affinity.remember(frame, event.getMethod());
+                    return event;
                 }
             } catch (Exception e) {
                 // Cross-origin or detached frame – skip
@@ -1228,274 +1814,155 @@ public class PlaywrightService {
         
         // 3) Fallback: use Playwright locators directly to find caption text
         try {
-            // Try multiple locator strategies
-            String[] locatorSelectors = {
-                    "[aria-live='polite']",
-                    "[aria-live='assertive']",
-                    "[role='status']",
-                    "[class*='caption']",
-                    "[class*='subtitle']",
-                    "[data-message-text]"
-            };
-            for (String selector : locatorSelectors) {
-                try {
-                    Locator loc = page.locator(selector);
-                    if (loc.count() > 0) {
-                        String text = loc.first().innerText();
-                        if (text != null && text.length() > 2 && text.length() < 800 && !text.contains("BETA")) {
-                            log.info("[{}] Caption via locator '{}': {}", uuid, selector, text.substring(0, Math.min(50, text.length())));
-                            return new String[]{"Unknown", text.trim()};
-                        }
-                    }
-                } catch (Exception ignored) {}
+            for (String selector : CAPTION_LOCATORS) {
+                CaptionEvent located = captionViaLocator(page, selector, uuid);
+                if (located != null) {
+                    log.info("[{}] Caption via locator '{}': {}", uuid, selector,
+                            located.getText().substring(0, Math.min(50, located.getText().length())));
+                    affinity.remember(selector);
+                    return located;
+                }
             }
         } catch (Exception e) {
             log.debug("[{}] Locator fallback failed: {}", uuid, e.getMessage());
         }
         
-        return result != null ? result : new String[]{"", ""};
+        return mainEvent;
     }
 
-    private String getCaptionExtractionJS() {
-        return """
-                (function() {
-                    let result = {speaker: '', text: '', debug: ''};
-                    function setResult(s, t, d) { 
-                        result.speaker = s || 'Unknown'; 
-                        result.text = t || ''; 
-                        result.debug = d || '';
-                        return result.text.length > 0; 
-                    }
-                    let doc = document;
-                    let win = window;
-                    
-                    // UI/accessibility text patterns to SKIP (not real captions)
-                    const uiPatterns = /Press Down Arrow|hover tray|Escape to close|Press Enter|Press Tab|Use arrow keys|keyboard shortcut|Screen reader|Click to|Tap to|Swipe|Double-click|Right-click|participants? in this call|You're presenting|Present now|Stop presenting|Turn on|Turn off|microphone|camera|Leave call|End call|More options|Activities|raised hand|raise hand|lower hand|Reactions|Send a message|Chat with|Open chat|BETA|Font size|language|settings|Afrikaans|Albanian|Amharic|Arabic/i;
-                    
-                    function isUIText(text) {
-                        return uiPatterns.test(text);
-                    }
-                    
-                    // Method 1: data-message-text attribute (MOST RELIABLE for actual caption text)
-                    let msgTextEls = doc.querySelectorAll('[data-message-text]');
-                    result.debug += 'data-message-text:' + msgTextEls.length + '; ';
-                    for (let el of msgTextEls) {
-                        let text = el.getAttribute('data-message-text') || (el.innerText || '').trim();
-                        if (text.length > 1 && text.length < 800 && !isUIText(text)) {
-                            // Find speaker from parent
-                            let speaker = 'Unknown';
-                            let parent = el.closest('[data-sender-name]') || el.closest('[data-self-name]');
-                            if (parent) {
-                                speaker = parent.getAttribute('data-sender-name') || parent.getAttribute('data-self-name') || 'Unknown';
-                            }
-                            setResult(speaker, text, 'data-message-text');
-                            return JSON.stringify(result);
-                        }
-                    }
-                    
-                    // Method 2: data-sender-name containers
-                    let senderContainers = doc.querySelectorAll('[data-sender-name], [data-self-name]');
-                    result.debug += 'sender-containers:' + senderContainers.length + '; ';
-                    for (let c of senderContainers) {
-                        let name = c.getAttribute('data-sender-name') || c.getAttribute('data-self-name') || '';
-                        let textEl = c.querySelector('[data-message-text]') || c;
-                        let text = textEl.getAttribute('data-message-text') || (textEl.innerText || '').trim();
-                        if (text.length > 1 && text.length < 800 && !isUIText(text)) {
-                            setResult(name || 'Unknown', text, 'sender-container');
-                            return JSON.stringify(result);
-                        }
-                    }
-                    
-                    // Method 3: Known Google Meet caption classes (specific to caption display)
-                    let meetClasses = doc.querySelectorAll('.iTTPOb, .TBMuR, .iOzk7, .a4cQT, .zs7s8d, .CNusmb, .Mz6pEf, .NWpY1c');
-                    result.debug += 'meet-classes:' + meetClasses.length + '; ';
-                    for (let el of meetClasses) {
-                        let text = (el.innerText || '').trim();
-                        if (text.length > 2 && text.length < 800 && !isUIText(text)) {
-                            setResult('Unknown', text, 'meet-class');
-                            return JSON.stringify(result);
-                        }
-                    }
-                    
-                    // Method 4: Caption/subtitle divs (class name contains caption/subtitle)
-                    let captionDivs = doc.querySelectorAll('div[class*="caption" i], div[class*="subtitle" i], span[class*="caption" i]');
-                    result.debug += 'caption-divs:' + captionDivs.length + '; ';
-                    for (let el of captionDivs) {
-                        let text = (el.innerText || '').trim();
-                        if (text.length < 2 || text.length > 800 || isUIText(text)) continue;
-                        let speaker = 'Unknown';
-                        let parent = el.closest('[class*="caption"]');
-                        if (parent) {
-                            let nameEl = parent.querySelector('[class*="name"]');
-                            if (nameEl) speaker = (nameEl.textContent || '').trim();
-                        }
-                        setResult(speaker, text, 'caption-div');
-                        return JSON.stringify(result);
-                    }
-                    
-                    // Method 5: aria-live regions (filter out UI text)
-                    let liveEls = doc.querySelectorAll('[aria-live="polite"], [aria-live="assertive"]');
-                    result.debug += 'aria-live:' + liveEls.length + '; ';
-                    for (let el of liveEls) {
-                        let raw = (el.innerText || '').trim();
-                        if (raw.length < 2 || raw.length > 800 || isUIText(raw)) continue;
-                        let lines = raw.split(/[\\n\\r]+/).map(l => l.trim()).filter(l => l.length > 0 && !isUIText(l));
-                        if (lines.length >= 2) {
-                            let first = lines[0], rest = lines.slice(1).join(' ').trim();
-                            if (first.length < 60 && rest.length > 1 && !isUIText(rest)) {
-                                setResult(first, rest, 'aria-live');
-                                return JSON.stringify(result);
-                            }
-                        }
-                        if (lines.length === 1 && lines[0].length > 2 && !isUIText(lines[0])) {
-                            setResult('Unknown', lines[0], 'aria-live-single');
-                            return JSON.stringify(result);
-                        }
-                    }
-                    
-                    // Method 6: role=region - but ONLY if text doesn't match UI patterns
-                    let regions = Array.from(doc.querySelectorAll('[role="region"]'));
-                    result.debug += 'regions:' + regions.length + '; ';
-                    for (let region of regions) {
-                        let raw = (region.innerText || '').trim();
-                        if (!raw || raw.length < 2 || raw.length > 800 || isUIText(raw)) continue;
-                        let lines = raw.split(/[\\n\\r]+/).map(l => l.trim()).filter(l => l.length > 0 && !isUIText(l));
-                        if (lines.length >= 2) {
-                            let first = lines[0], rest = lines.slice(1).join(' ').trim();
-                            if (first.length < 60 && rest.length > 1 && !isUIText(rest)) {
-                                setResult(first, rest, 'region');
-                                return JSON.stringify(result);
-                            }
-                        }
-                        // Single valid line
-                        if (lines.length === 1 && lines[0].length > 2) {
-                            setResult('Unknown', lines[0], 'region-single');
-                            return JSON.stringify(result);
-                        }
-                    }
-                    
-                    return JSON.stringify(result);
-                })()
-                """;
-    }
+    // Locator strategies for captions the page probe did not find
+    private static final String[] CAPTION_LOCATORS = {
+            "[aria-live='polite']",
+            "[aria-live='assertive']",
+            "[role='status']",
+            "[class*='caption']",
+            "[class*='subtitle']",
+            "[data-message-text]"
+    };
 
-    private String[] evaluateCaptionJS(Frame frame, String js, String uuid) {
+    // Ticks in a row the remembered caption frame/method may come up empty before the full scan runs again
+    private static final int CAPTION_AFFINITY_MISS_LIMIT = 10;
+
+    private CaptionEvent captionViaLocator(Page page, String selector, String uuid) {
         try {
-            Object resultObj = frame.evaluate(js);
-            if (resultObj == null) return new String[]{"", ""};
-            String jsonStr = resultObj.toString();
-            String speaker = "";
-            String text = "";
-            String debug = "";
-            
-            // Extract speaker
-            int speakerStart = jsonStr.indexOf("\"speaker\":\"");
-            if (speakerStart >= 0) {
-                speakerStart += 11;
-                int speakerEnd = jsonStr.indexOf("\"", speakerStart);
-                if (speakerEnd > speakerStart) speaker = jsonStr.substring(speakerStart, speakerEnd);
-            }
-            
-            // Extract text
-            int textStart = jsonStr.indexOf("\"text\":\"");
-            if (textStart >= 0) {
-                textStart += 8;
-                int textEnd = jsonStr.indexOf("\",\"debug\"");
-                if (textEnd < 0) textEnd = jsonStr.lastIndexOf("\"");
-                if (textEnd > textStart) text = jsonStr.substring(textStart, textEnd);
-            }
-            
-            // Extract debug info
-            int debugStart = jsonStr.indexOf("\"debug\":\"");
-            if (debugStart >= 0) {
-                debugStart += 9;
-                int debugEnd = jsonStr.lastIndexOf("\"");
-                if (debugEnd > debugStart) debug = jsonStr.substring(debugStart, debugEnd);
+            Locator loc = page.locator(selector);
+            String text = watchdog.call(uuid, "caption-locator",
+                    () -> loc.count() > 0 ? loc.first().innerText() : null);
+            if (text != null && text.length() > 2 && text.length() < 800 && !text.contains("BETA")) {
+                return CaptionEvent.builder()
+                        .meetingId(uuid)
+                        .arrivalNanos(System.nanoTime())
+                        .source("locator:" + selector)
+                        .speaker("Unknown")
+                        .text(text.trim())
+                        .build();
             }
-            
-            // Log debug info periodically
-            if (!debug.isEmpty()) {
-                log.debug("[{}] JS extraction debug: {}", uuid, debug);
+        } catch (Exception ignored) {}
+        return null;
+    }
+
+    private static CaptionEvent noCaption(String uuid) {
+        return CaptionEvent.builder().meetingId(uuid).arrivalNanos(System.nanoTime()).build();
+    }
+
+    /**
+     * Run the probe installed in the frame; install it first if the frame has none of the current
+     * registry load (frame created without the init script, or the registry was reloaded).
+     * part: "captions" (extraction only), "ended" (meeting-ended check only) or "" for both.
+     */
+    private CaptionEvent evaluateCaptionJS(Page page, Frame frame, MeetingSession session, int method, String part) {
+        String uuid = session.getUuid();
+        MeetingMetrics metrics = session.getMetrics();
+        try {
+            long start = System.nanoTime();
+            Object resultObj = watchdog.call(uuid, "caption-evaluate",
+                    () -> frame.evaluate(selectorRegistry.getProbeTickScript(), List.of(method, part)));
+            if (resultObj == null) {
+                metrics.setCaptionProbeInstalls(metrics.getCaptionProbeInstalls() + 1);
+                resultObj = watchdog.call(uuid, "caption-install",
+                        () -> frame.evaluate(selectorRegistry.getProbeScript(), List.of(method, part)));
             }
-            
-            return new String[]{speaker, text};
+            long calls = metrics.getCaptionProbeCalls() + 1;
+            double micros = (System.nanoTime() - start) / 1000.0;
+            double avg = metrics.getCaptionProbeAvgMicros() != null ? metrics.getCaptionProbeAvgMicros() : 0;
+            metrics.setCaptionProbeAvgMicros(avg + (micros - avg) / calls);
+            metrics.setCaptionProbeCalls(calls);
+            return toCaptionEvent(resultObj, uuid, "poll:" + (frame == page.mainFrame() ? "main" : "iframe"));
         } catch (Exception e) {
             log.debug("[{}] Frame eval failed: {}", uuid, e.getMessage());
-            return new String[]{"", ""};
+            return noCaption(uuid);
         }
     }
 
     /**
-     * Check if the captured text is valid caption content (not UI junk)
+     * Convert a probe result (polled, or pushed by the caption observer) as returned by Playwright.
      */
-    private boolean isValidCaptionText(String text) {
-        if (text == null || text.length() < 2) {
-            return false;
+    private CaptionEvent toCaptionEvent(Object probeResult, String uuid, String source) {
+        long arrivalNanos = System.nanoTime();
+        if (!(probeResult instanceof Map<?, ?> result)) {
+            return noCaption(uuid);
         }
-        
-        // Filter out common junk patterns including Google Meet UI/accessibility text
-        String[] junkPatterns = {
-            "BETA", "Font size", "Font color", "format_size", "arrow_downward",
-            "Jump to bottom", "Open caption settings", "settings", "language",
-            "Afrikaans", "Albanian", "Amharic", "Arabic", "Default", "Tiny",
-            "Small", "Medium", "Large", "Huge", "Jumbo", "circle",
-            "(South Africa)", "(Spain)", "(Brazil)", "(India)", "BETAChinese",
-            // Google Meet accessibility/UI messages - NOT actual captions
-            "Press Down Arrow", "hover tray", "Escape to close",
-            "Press Enter to", "Press Tab to", "Use arrow keys",
-            "Screen reader", "keyboard shortcut", "Click to",
-            "Tap to", "Swipe to", "Double-click", "Right-click",
-            "participants", "participant", "in this call",
-            "You're presenting", "Present now", "Stop presenting",
-            "Turn on microphone", "Turn off microphone", "Turn on camera", "Turn off camera",
-            "Leave call", "End call", "More options", "Activities",
-            "raised hand", "raise hand", "lower hand", "Reactions",
-            "Send a message", "Chat with everyone", "Open chat"
-        };
-        
-        for (String pattern : junkPatterns) {
-            if (text.contains(pattern)) {
-                return false;
+        try {
+            if (result.get("debug") instanceof String debug && !debug.isEmpty()) {
+                log.debug("[{}] JS extraction debug: {}", uuid, debug);
             }
+            CaptionEvent event = objectMapper.convertValue(result, CaptionEvent.class);
+            event.setMeetingId(uuid);
+            event.setArrivalNanos(arrivalNanos);
+            event.setSource(source + ":" + event.getMethod());
+            return event;
+        } catch (IllegalArgumentException e) {
+            log.debug("[{}] Unreadable probe result: {}", uuid, e.getMessage());
+            return noCaption(uuid);
         }
-        
-        // Filter out time patterns like "7:19 PM"
-        if (text.matches("^\\d{1,2}:\\d{2}\\s*(AM|PM)?$")) {
-            return false;
-        }
-        
-        // Filter out meeting codes like "abc-defg-hij"
-        if (text.matches("^[a-z]{3}-[a-z]{4}-[a-z]{3}$")) {
-            return false;
-        }
-        
-        // Text should be reasonable length (match JS extraction max 800)
-        return text.length() >= 2 && text.length() < 900;
     }
 
-    private boolean isKickedOrMeetingEnded(Page page) {
-        try {
-            // Check for "meeting ended" or "removed" indicators
-            String[] endedSelectors = {
-                    "text='You have been removed from the meeting'",
-                    "text='The meeting has ended'",
-                    "text='You left the meeting'",
-                    "text='Return to home screen'"
-            };
-
-            for (String selector : endedSelectors) {
-                if (page.locator(selector).count() > 0) {
-                    return true;
+    /**
+     * The caption text with lines of Meet UI text (junk patterns, clock times, meeting codes) blanked out.
+     * Each line is judged on its own, so UI text that leaked into the caption pane does not drop the spoken
+     * lines around it, and blanked lines keep their length so offsets still map into the stream.
+     */
+    private String withoutUiLines(String text) {
+        StringBuilder clean = new StringBuilder(text);
+        int start = 0;
+        while (start <= text.length()) {
+            int end = text.indexOf('\n', start);
+            if (end < 0) {
+                end = text.length();
+            }
+            if (isUiLine(text.substring(start, end).trim())) {
+                for (int i = start; i < end; i++) {
+                    clean.setCharAt(i, ' ');
                 }
             }
+            start = end + 1;
+        }
+        return clean.toString();
+    }
+
+    /**
+     * Check if a caption line is Meet UI/accessibility text rather than speech.
+     */
+    private boolean isUiLine(String line) {
+        if (line.isEmpty()) {
             return false;
-        } catch (Exception e) {
-            return false;
         }
+        for (String pattern : selectorRegistry.getRegistry().getJunkPatterns()) {
+            if (line.contains(pattern)) {
+                return true;
+            }
+        }
+        // Time patterns like "7:19 PM" and meeting codes like "abc-defg-hij"
+        return line.matches("^\\d{1,2}:\\d{2}\\s*(AM|PM)?$") || line.matches("^[a-z]{3}-[a-z]{4}-[a-z]{3}$");
     }
 
     private void leaveMeeting(Page page, String uuid) {
         log.info("[{}] Leaving meeting", uuid);
+        if (watchdog.isAborted(uuid)) {
+            // Page target is already gone, nothing to click
+            closePageQuietly(page, uuid);
+            return;
+        }
         try {
             // Method 1: Use JavaScript to find and click leave button (most reliable)
             String jsClickLeave = """
@@ -1505,11 +1972,11 @@ public class PlaywrightService {
                               document.querySelector('[aria-label*="Leave call" i]') ||
                               document.querySelector('[data-tooltip*="Leave" i]');
                     if (btn) { btn.click(); return 'clicked'; }
-                    
+
                     // Try finding by icon/svg
                     let icons = document.querySelectorAll('button');
                     for (let b of icons) {
-                        if (b.innerHTML.includes('call_end') || 
+                        if (b.innerHTML.includes('call_end') ||
                             b.innerText.toLowerCase().includes('leave')) {
                             b.click(); return 'clicked-alt';
                         }
@@ -1518,10 +1985,10 @@ public class PlaywrightService {
                 })()
                 """;
             
-            Object result = page.evaluate(jsClickLeave);
+            Object result = watchdog.call(uuid, "leave", LEAVE_CALL_BUDGET_MS, () -> page.evaluate(jsClickLeave));
             log.info("[{}] Leave button JS result: {}", uuid, result);
             
-            Thread.sleep(1000);
+            page.waitForTimeout(1000);
             
             // Method 2: Click confirmation dialog if it appeared
             String jsClickConfirm = """
@@ -1530,7 +1997,7 @@ public class PlaywrightService {
                     for (let b of btns) {
                         let txt = (b.innerText || b.textContent || '').toLowerCase();
                         let label = (b.getAttribute('aria-label') || '').toLowerCase();
-                        if (txt === 'leave' || txt === 'leave call' || 
+                        if (txt === 'leave' || txt === 'leave call' ||
                             label.includes('leave call') || label.includes('leave meeting')) {
                             b.click(); return 'confirmed';
                         }
@@ -1539,20 +2006,96 @@ public class PlaywrightService {
                 })()
                 """;
             
-            Object confirmResult = page.evaluate(jsClickConfirm);
+            Object confirmResult = watchdog.call(uuid, "leave-confirm", LEAVE_CALL_BUDGET_MS,
+                    () -> page.evaluate(jsClickConfirm));
             log.info("[{}] Confirm dialog JS result: {}", uuid, confirmResult);
             
-            Thread.sleep(500);
+            page.waitForTimeout(500);
             log.info("[{}] Left meeting", uuid);
             
         } catch (Exception e) {
             log.warn("[{}] Error leaving: {}", uuid, e.getMessage());
         } finally {
             // ALWAYS close page to ensure cleanup
-            try { 
-                page.close(); 
-                log.info("[{}] Browser page closed", uuid);
-            } catch (Exception ignored) {}
+            closePageQuietly(page, uuid);
+        }
+    }
+
+    private void closePageQuietly(Page page, String uuid) {
+        try {
+            page.close();
+            log.info("[{}] Browser page closed", uuid);
+        } catch (Exception ignored) {}
+    }
+
+    /**
+     * locator.count() under the page watchdog's deadline.
+     */
+    private int count(Page page, String uuid, String selector) {
+        return count(uuid, page.locator(selector));
+    }
+
+    private int count(String uuid, Locator locator) {
+        return watchdog.call(uuid, "count", locator::count);
+    }
+
+    /**
+     * CDP target id of a page, used by the watchdog to close the page from outside the meeting thread.
+     */
+    private String targetId(BrowserContext context, Page page) {
+        CDPSession cdp = context.newCDPSession(page);
+        try {
+            JsonObject info = cdp.send("Target.getTargetInfo");
+            return info.getAsJsonObject("targetInfo").get("targetId").getAsString();
+        } finally {
+            cdp.detach();
+        }
+    }
+
+    /**
+     * Browser resources of one meeting. Replaced piecewise when the meeting re-joins.
+     */
+    private static class MeetingBrowser {
+        private BrowserPoolService.Lease lease;
+        private Browser browser;
+        private BrowserContext context;
+        private Page page;
+        // CDP session for performance metrics, opened on first use
+        private CDPSession perf;
+        private long pageOpenedAt;
+        // Alone/idle state, kept across re-joins
+        private IdleDetectionService.Tracker idle;
+        // Probe results pushed by the page's caption observer (null when push is off)
+        private ConcurrentLinkedQueue<CaptionEvent> captionEvents;
+        // Where captions were last found on this page
+        private CaptionAffinity captionAffinity;
+    }
+
+    /**
+     * Frame and probe method (or fallback locator) that last produced captions, with the current miss streak.
+     */
+    private static class CaptionAffinity {
+        private Frame frame;
+        private int method = -1;
+        private String locator;
+        private int misses;
+
+        boolean hasTarget() {
+            return locator != null || (frame != null && !frame.isDetached() && method >= 0);
+        }
+
+        void remember(Frame frame, int method) {
+            this.frame = frame;
+            this.method = method;
+            this.locator = null;
+            this.misses = 0;
+        }
+
+        void remember(String locator) {
+            this.frame = null;
+            this.method = -1;
+            this.locator = locator;
+            this.misses = 0;
         }
     }
 }
@@ -0,0 +1,341 @@
+package com.transcriber.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Records the browser, driver and worker processes this service spawns and which meeting
+ * each renderer/worker belongs to. A background reaper kills processes still alive after
+ * their meeting finished, plus Chromium/Node processes under this JVM that no live owner
+ * accounts for (e.g. a driver whose close() failed).
+ */
+@Slf4j
+@Service
+public class ProcessRegistry {
+
+    // USER_HZ, the unit of utime/stime in /proc/[pid]/stat (100 on all mainstream Linux builds)
+    private static final int CLOCK_TICKS_PER_SECOND = 100;
+
+    private static final Set<String> BROWSER_PROCESS_NAMES = Set.of("chrome", "chromium", "headless_shell", "node");
+
+    /**
+     * Held by everything in this JVM that starts a long-lived child process (drivers, pooled
+     * browsers, workers), so a spawner that finds its child by diffing the JVM's children only
+     * ever sees its own.
+     */
+    public static final Object SPAWN_LOCK = new Object();
+
+    @Value("${playwright.reaper.enabled:true}")
+    private boolean enabled;
+
+    // How long a finished meeting's processes get to exit on their own
+    @Value("${playwright.reaper.grace-seconds:30}")
+    private int graceSeconds;
+
+    // Long-lived processes we own directly (pooled browsers, drivers, workers), by pid
+    private final ConcurrentHashMap<Long, Root> roots = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, MeetingProcesses> meetings = new ConcurrentHashMap<>();
+    private final Set<ProcessHandle> suspectedOrphans = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong reapedProcesses = new AtomicLong();
+    private final AtomicLong reapedRssBytes = new AtomicLong();
+    private volatile int leakedProcesses;
+    private volatile long leakedRssBytes;
+
+    public void registerRoot(ProcessHandle process, String label) {
+        roots.put(process.pid(), new Root(process, label));
+        log.debug("Registered process {} ({})", process.pid(), label);
+    }
+
+    /**
+     * Forget a root, but only if it is still the one registered under this label: a pid that was
+     * reused by another owner's process stays tracked.
+     */
+    public void unregisterRoot(long pid, String label) {
+        roots.computeIfPresent(pid, (k, root) -> root.label.equals(label) ? null : root);
+    }
+
+    /**
+     * True if this is the Node.js process of a Playwright driver started by this JVM.
+     */
+    public static boolean isPlaywrightDriver(ProcessHandle process) {
+        boolean ownChild = process.parent().map(p -> p.pid() == ProcessHandle.current().pid()).orElse(false);
+        return ownChild && commandLine(process.pid()).contains("run-driver");
+    }
+
+    /**
+     * Record a process that exists only for this meeting (e.g. a worker JVM).
+     */
+    public void registerMeetingProcess(String uuid, ProcessHandle process, String type) {
+        meetings.computeIfAbsent(uuid, k -> new MeetingProcesses())
+                .processes.add(new TrackedProcess(process, type, true));
+    }
+
+    /**
+     * Start attributing renderer processes that appear on this browser to a meeting.
+     * Call before the meeting's page is created and finish with {@link #endAttribution}.
+     */
+    public Attribution beginAttribution(String uuid, long browserPid) {
+        return new Attribution(uuid, browserPid, rendererPids(browserPid));
+    }
+
+    /**
+     * Attribute renderers that appeared since {@link #beginAttribution} to the meeting, for its
+     * resource metrics only. The pooled browser is shared and Chromium does not tell which target a
+     * renderer serves, so a renderer that appeared meanwhile may be another meeting's (or a spare
+     * one Chromium keeps around); they are never reaped or killed for this meeting.
+     */
+    public void endAttribution(Attribution attribution) {
+        Set<Long> attributedElsewhere = meetings.values().stream()
+                .flatMap(m -> m.processes.stream())
+                .map(p -> p.process.pid())
+                .collect(Collectors.toSet());
+        MeetingProcesses owned = meetings.computeIfAbsent(attribution.uuid, k -> new MeetingProcesses());
+        for (long pid : rendererPids(attribution.browserPid)) {
+            if (!attribution.before.contains(pid) && !attributedElsewhere.contains(pid)) {
+                ProcessHandle.of(pid).ifPresent(ph -> owned.processes.add(new TrackedProcess(ph, "renderer", false)));
+            }
+        }
+        log.debug("[{}] Attributed renderer processes: {}", attribution.uuid, getPids(attribution.uuid));
+    }
+
+    /**
+     * Meeting is over; anything of it still alive after the grace period gets reaped.
+     */
+    public void meetingFinished(String uuid) {
+        MeetingProcesses processes = meetings.get(uuid);
+        if (processes != null) {
+            processes.finishedAt = System.currentTimeMillis();
+        }
+    }
+
+    public List<Long> getPids(String uuid) {
+        MeetingProcesses processes = meetings.get(uuid);
+        if (processes == null) {
+            return List.of();
+        }
+        return processes.processes.stream().map(p -> p.process.pid()).collect(Collectors.toList());
+    }
+
+    /**
+     * Total RSS of the browsers, drivers and workers we own, including their child processes.
+     */
+    public long browserRssBytes() {
+        Set<Long> pids = new HashSet<>();
+        roots.values().forEach(root -> addTree(root.process, pids));
+        meetings.values().forEach(m -> m.processes.forEach(p -> addTree(p.process, pids)));
+        return pids.stream().mapToLong(ProcessRegistry::rssBytes).sum();
+    }
+
+    private static void addTree(ProcessHandle process, Set<Long> pids) {
+        if (process.isAlive()) {
+            pids.add(process.pid());
+            process.descendants().forEach(d -> pids.add(d.pid()));
+        }
+    }
+
+    /**
+     * Live renderer processes of a browser (descendants started with --type=renderer).
+     */
+    public Set<Long> rendererPids(long browserPid) {
+        return ProcessHandle.of(browserPid)
+                .map(ph -> ph.descendants()
+                        .filter(d -> commandLine(d.pid()).contains("--type=renderer"))
+                        .map(ProcessHandle::pid)
+                        .collect(Collectors.toSet()))
+                .orElseGet(HashSet::new);
+    }
+
+    @Scheduled(fixedDelayString = "${playwright.reaper.interval-ms:30000}")
+    public void reap() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        int leaked = 0;
+        long leakedRss = 0;
+
+        // 1) Processes of meetings that finished more than the grace period ago
+        for (Map.Entry<String, MeetingProcesses> entry : meetings.entrySet()) {
+            MeetingProcesses processes = entry.getValue();
+            if (processes.finishedAt == 0 || now - processes.finishedAt < graceSeconds * 1000L) {
+                continue;
+            }
+            for (TrackedProcess tracked : processes.processes) {
+                if (tracked.reapable && tracked.process.isAlive()) {
+                    long rss = rssBytes(tracked.process.pid());
+                    leaked++;
+                    leakedRss += rss;
+                    log.warn("[{}] Reaping leaked {} process {} ({} MB RSS)", entry.getKey(), tracked.type,
+                            tracked.process.pid(), rss / (1024 * 1024));
+                    killTree(tracked.process, rss);
+                }
+            }
+            meetings.remove(entry.getKey());
+        }
+
+        // 2) Chromium/Node processes under this JVM that no live owner accounts for.
+        //    Only killed when seen orphaned on two consecutive sweeps, so processes that are
+        //    still being launched and registered are left alone.
+        Set<ProcessHandle> orphans = ProcessHandle.current().descendants()
+                .filter(ph -> BROWSER_PROCESS_NAMES.contains(processName(ph.pid())))
+                .filter(ph -> !hasLiveRoot(ph))
+                .collect(Collectors.toSet());
+        for (ProcessHandle orphan : orphans) {
+            long rss = rssBytes(orphan.pid());
+            leaked++;
+            leakedRss += rss;
+            if (suspectedOrphans.contains(orphan)) {
+                log.warn("Reaping orphaned {} process {} ({} MB RSS)", processName(orphan.pid()), orphan.pid(),
+                        rss / (1024 * 1024));
+                killTree(orphan, rss);
+            }
+        }
+        suspectedOrphans.retainAll(orphans);
+        suspectedOrphans.addAll(orphans);
+
+        leakedProcesses = leaked;
+        leakedRssBytes = leakedRss;
+    }
+
+    private boolean hasLiveRoot(ProcessHandle process) {
+        long self = ProcessHandle.current().pid();
+        Optional<ProcessHandle> current = Optional.of(process);
+        while (current.isPresent() && current.get().pid() != self) {
+            Root root = roots.get(current.get().pid());
+            if (root != null && root.process.isAlive()) {
+                return true;
+            }
+            current = current.get().parent();
+        }
+        return false;
+    }
+
+    private void killTree(ProcessHandle process, long rss) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+        reapedProcesses.incrementAndGet();
+        reapedRssBytes.addAndGet(rss);
+    }
+
+    private static String commandLine(long pid) {
+        try {
+            byte[] raw = Files.readAllBytes(Paths.get("/proc", String.valueOf(pid), "cmdline"));
+            return new String(raw, StandardCharsets.UTF_8).replace('\0', ' ');
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    private static String processName(long pid) {
+        try {
+            return Files.readString(Paths.get("/proc", String.valueOf(pid), "comm")).trim();
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    /**
+     * Resident set size from /proc/[pid]/status, 0 if unavailable.
+     */
+    public static long rssBytes(long pid) {
+        Path status = Paths.get("/proc", String.valueOf(pid), "status");
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // process gone or /proc unavailable
+        }
+        return 0;
+    }
+
+    /**
+     * CPU time (user + system) from /proc/[pid]/stat in seconds, 0 if unavailable.
+     */
+    public static double cpuSeconds(long pid) {
+        try {
+            String stat = Files.readString(Paths.get("/proc", String.valueOf(pid), "stat"));
+            // Fields after the parenthesised command name; utime and stime are fields 14 and 15
+            String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+            return (Long.parseLong(fields[11]) + Long.parseLong(fields[12])) / (double) CLOCK_TICKS_PER_SECOND;
+        } catch (IOException | RuntimeException e) {
+            return 0;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, List<Long>> pidsByMeeting = new LinkedHashMap<>();
+        meetings.keySet().forEach(uuid -> pidsByMeeting.put(uuid, getPids(uuid)));
+        long rootRss = roots.keySet().stream().mapToLong(ProcessRegistry::rssBytes).sum();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("trackedRoots", roots.values().stream().map(r -> r.label + ":" + r.process.pid()).toList());
+        stats.put("rootRssBytes", rootRss);
+        stats.put("meetingProcesses", pidsByMeeting);
+        stats.put("leakedProcesses", leakedProcesses);
+        stats.put("leakedRssBytes", leakedRssBytes);
+        stats.put("reapedProcesses", reapedProcesses.get());
+        stats.put("reapedRssBytes", reapedRssBytes.get());
+        return stats;
+    }
+
+    public static class Attribution {
+        private final String uuid;
+        private final long browserPid;
+        private final Set<Long> before;
+
+        private Attribution(String uuid, long browserPid, Set<Long> before) {
+            this.uuid = uuid;
+            this.browserPid = browserPid;
+            this.before = before;
+        }
+    }
+
+    private static class Root {
+        private final ProcessHandle process;
+        private final String label;
+
+        Root(ProcessHandle process, String label) {
+            this.process = process;
+            this.label = label;
+        }
+    }
+
+    private static class TrackedProcess {
+        private final ProcessHandle process;
+        private final String type;
+        private final boolean reapable;
+
+        TrackedProcess(ProcessHandle process, String type, boolean reapable) {
+            this.process = process;
+            this.type = type;
+            this.reapable = reapable;
+        }
+    }
+
+    private static class MeetingProcesses {
+        private final List<TrackedProcess> processes = new CopyOnWriteArrayList<>();
+        private volatile long finishedAt;
+    }
+}
@@ -0,0 +1,178 @@
+package com.transcriber.service;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.transcriber.model.MeetingMetrics;
+import com.transcriber.model.MeetingSession;
+import com.transcriber.model.ResourceSample;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Builds a meeting's resource time series: CPU time and RSS of the processes the registry ties to
+ * the meeting, plus JS heap, DOM nodes and task time from the page's CDP performance metrics. Used
+ * to find the meetings that blow up (large grids, screen shares) and for capacity planning.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ResourceSampler {
+
+    private final ProcessRegistry processRegistry;
+
+    @Value("${meeting.resource-sampling.interval-seconds:30}")
+    private int intervalSeconds;
+
+    // Oldest samples are dropped beyond this (30 s interval: 2 hours)
+    @Value("${meeting.resource-sampling.max-samples:240}")
+    private int maxSamples;
+
+    // Renderer CPU of finished meetings, by captions-only mode ("captionsOnly" / "fullVideo")
+    private final Map<String, LongAdder> rendererMeetings = new ConcurrentHashMap<>();
+    private final Map<String, DoubleAdder> rendererCpuPercentSum = new ConcurrentHashMap<>();
+
+    /**
+     * True when the meeting's last sample is older than the sampling interval.
+     */
+    public boolean isDue(MeetingSession session) {
+        List<ResourceSample> samples = session.getResourceSamples();
+        if (intervalSeconds <= 0) {
+            return false;
+        }
+        if (samples.isEmpty()) {
+            return true;
+        }
+        LocalDateTime last = samples.get(samples.size() - 1).getTimestamp();
+        return Duration.between(last, LocalDateTime.now()).getSeconds() >= intervalSeconds;
+    }
+
+    /**
+     * Record a sample. performanceMetrics is the CDP Performance.getMetrics result, or null if unavailable.
+     */
+    public ResourceSample sample(MeetingSession session, JsonObject performanceMetrics) {
+        Set<Long> pids = new HashSet<>();
+        for (long pid : processRegistry.getPids(session.getUuid())) {
+            ProcessHandle.of(pid).filter(ProcessHandle::isAlive).ifPresent(ph -> {
+                pids.add(ph.pid());
+                ph.descendants().forEach(d -> pids.add(d.pid()));
+            });
+        }
+        double cpuSeconds = pids.stream().mapToDouble(ProcessRegistry::cpuSeconds).sum();
+        long rss = pids.stream().mapToLong(ProcessRegistry::rssBytes).sum();
+
+        ResourceSample sample = ResourceSample.builder()
+                .timestamp(LocalDateTime.now())
+                .processes(pids.size())
+                .cpuSeconds(cpuSeconds)
+                .rssBytes(rss)
+                .build();
+
+        List<ResourceSample> samples = session.getResourceSamples();
+        if (!samples.isEmpty()) {
+            ResourceSample previous = samples.get(samples.size() - 1);
+            double wallSeconds = Duration.between(previous.getTimestamp(), sample.getTimestamp()).toMillis() / 1000.0;
+            // Process set changed (re-join, renderer swap) when CPU time went backwards
+            if (wallSeconds > 0 && cpuSeconds >= previous.getCpuSeconds()) {
+                sample.setCpuPercent((cpuSeconds - previous.getCpuSeconds()) * 100 / wallSeconds);
+            }
+        }
+
+        if (performanceMetrics != null && performanceMetrics.has("metrics")) {
+            for (JsonElement element : performanceMetrics.getAsJsonArray("metrics")) {
+                JsonObject metric = element.getAsJsonObject();
+                double value = metric.get("value").getAsDouble();
+                switch (metric.get("name").getAsString()) {
+                    case "JSHeapUsedSize" -> sample.setJsHeapUsedBytes((long) value);
+                    case "JSHeapTotalSize" -> sample.setJsHeapTotalBytes((long) value);
+                    case "Nodes" -> sample.setDomNodes((long) value);
+                    case "TaskDuration" -> sample.setTaskSeconds(value);
+                    default -> { }
+                }
+            }
+        }
+
+        samples.add(sample);
+        while (samples.size() > maxSamples) {
+            samples.remove(0);
+        }
+        updatePeaks(session.getMetrics(), sample);
+        log.debug("[{}] Resources: {} processes, {} MB RSS, cpu {}%, heap {} MB, {} DOM nodes", session.getUuid(),
+                sample.getProcesses(), rss / (1024 * 1024), sample.getCpuPercent(),
+                sample.getJsHeapUsedBytes() != null ? sample.getJsHeapUsedBytes() / (1024 * 1024) : null,
+                sample.getDomNodes());
+        return sample;
+    }
+
+    private void updatePeaks(MeetingMetrics metrics, ResourceSample sample) {
+        metrics.setPeakRssBytes(max(metrics.getPeakRssBytes(), sample.getRssBytes()));
+        metrics.setPeakJsHeapBytes(max(metrics.getPeakJsHeapBytes(), sample.getJsHeapUsedBytes()));
+        metrics.setPeakDomNodes(max(metrics.getPeakDomNodes(), sample.getDomNodes()));
+        if (sample.getCpuPercent() != null
+                && (metrics.getPeakCpuPercent() == null || sample.getCpuPercent() > metrics.getPeakCpuPercent())) {
+            metrics.setPeakCpuPercent(sample.getCpuPercent());
+        }
+    }
+
+    private static Long max(Long current, Long value) {
+        if (value == null) {
+            return current;
+        }
+        return current == null ? value : Math.max(current, value);
+    }
+
+    /**
+     * Add a finished meeting's renderer CPU to the captions-only vs full-video comparison.
+     */
+    public void recordRendererCpu(MeetingMetrics metrics) {
+        if (metrics.getRendererCpuPercent() == null) {
+            return;
+        }
+        String mode = metrics.isCaptionsOnly() ? "captionsOnly" : "fullVideo";
+        rendererMeetings.computeIfAbsent(mode, k -> new LongAdder()).increment();
+        rendererCpuPercentSum.computeIfAbsent(mode, k -> new DoubleAdder()).add(metrics.getRendererCpuPercent());
+    }
+
+    /**
+     * Average renderer CPU per captions-only mode over finished meetings.
+     */
+    public Map<String, Object> getRendererCpuStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        rendererMeetings.forEach((mode, count) -> {
+            Map<String, Object> modeStats = new LinkedHashMap<>();
+            long meetings = count.sum();
+            modeStats.put("meetings", meetings);
+            modeStats.put("avgRendererCpuPercent", meetings > 0 ? rendererCpuPercentSum.get(mode).sum() / meetings : 0.0);
+            stats.put(mode, modeStats);
+        });
+        return stats;
+    }
+
+    /**
+     * Latest sample and peaks of a meeting, for the metrics endpoint.
+     */
+    public Map<String, Object> summarize(MeetingSession session) {
+        List<ResourceSample> samples = session.getResourceSamples();
+        MeetingMetrics metrics = session.getMetrics();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("samples", samples.size());
+        summary.put("latest", samples.isEmpty() ? null : samples.get(samples.size() - 1));
+        summary.put("peakRssBytes", metrics.getPeakRssBytes());
+        summary.put("peakCpuPercent", metrics.getPeakCpuPercent());
+        summary.put("peakJsHeapBytes", metrics.getPeakJsHeapBytes());
+        summary.put("peakDomNodes", metrics.getPeakDomNodes());
+        return summary;
+    }
+}
@@ -0,0 +1,571 @@
+package com.transcriber.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transcriber.model.SelectorRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Versioned registry of Meet selectors and UI phrases. The bundled selectors.json is the
+ * default; playwright.selectors.path points to an override file that is re-read when it
+ * changes (or via POST /api/selectors/reload). Each load is compiled into the page probe,
+ * which answers the per-tick questions (meeting ended? current caption?) in one evaluate call,
+ * and into the caption observer that pushes the same answers from the page as the DOM changes.
+ * The probe is installed in each frame once, tagged with the registry load, so a tick only sends
+ * a call to it. An invalid file is rejected and the previous registry stays active.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SelectorRegistryService {
+
+    private static final String BUNDLED = "selectors.json";
+
+    // Page binding the caption observer pushes probe results through
+    public static final String CAPTION_BINDING = "__transcriberCaption";
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${playwright.selectors.path:}")
+    private String overridePath;
+
+    private volatile Compiled current;
+    private volatile long overrideModified;
+    private final AtomicLong reloads = new AtomicLong();
+    private final AtomicLong failedReloads = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        try {
+            current = compile(loadBundled(), "classpath:" + BUNDLED);
+        } catch (IOException e) {
+            throw new IllegalStateException("Bundled selector registry is invalid", e);
+        }
+        reloadIfChanged();
+        log.info("Selector registry {} loaded from {}", current.registry.getVersion(), current.source);
+    }
+
+    public SelectorRegistry getRegistry() {
+        return current.registry;
+    }
+
+    /**
+     * Init script installing the probe as window.__transcriberProbe in every frame.
+     */
+    public String getProbeInstallScript() {
+        return current.probeInstallScript;
+    }
+
+    /**
+     * Page-side probe for one capture tick: (re)installs the probe in the frame if it is missing or from
+     * another registry load, then runs it; returns {ended, method, cursor, seq, at, speaker, text, debug}
+     * (see {@link com.transcriber.model.CaptionEvent}).
+     * Takes [method index to try alone or -1 for all methods, part]: part "captions" skips the meeting-ended
+     * check, "ended" runs only that, anything else both.
+     */
+    public String getProbeScript() {
+        return current.probeScript;
+    }
+
+    /**
+     * Per-tick call of the installed probe (same argument); returns null if the frame has no probe of the
+     * current load, in which case {@link #getProbeScript()} installs and runs it.
+     */
+    public String getProbeTickScript() {
+        return current.probeTickScript;
+    }
+
+    /**
+     * The whole probe as one self-contained expression, as ticks sent it before it was installed (benchmark only).
+     */
+    public String getStandaloneProbeScript() {
+        return current.standaloneProbeScript;
+    }
+
+    /**
+     * Init script that watches the caption pane and pushes each caption delta (same object as the probe) to
+     * {@link #CAPTION_BINDING}, plus a result with ended set once the top frame shows the meeting is over (checked
+     * every second). Uses the installed probe, so it follows registry reloads once a tick re-installs it.
+     */
+    public String getCaptionObserverScript() {
+        return OBSERVER_SCRIPT;
+    }
+
+    /**
+     * Page-side function returning the compact page state {inMeeting, waiting, denied, ended, captionsOn, consent,
+     * participants, alone}.
+     */
+    public String getStateProbeScript() {
+        return current.stateProbeScript;
+    }
+
+    /**
+     * Consent phrases as a JS array literal, for the consent dialog script.
+     */
+    public String getConsentPhrasesJs() {
+        return current.consentPhrasesJs;
+    }
+
+    /**
+     * Re-read the override file if it was modified since the last load.
+     */
+    @Scheduled(fixedDelayString = "${playwright.selectors.reload-interval-ms:30000}")
+    public void reloadIfChanged() {
+        Path file = overrideFile();
+        if (file == null || !Files.exists(file)) {
+            return;
+        }
+        try {
+            long modified = Files.getLastModifiedTime(file).toMillis();
+            if (modified != overrideModified) {
+                // Don't retry a rejected file until it changes again
+                overrideModified = modified;
+                reload();
+            }
+        } catch (IllegalArgumentException e) {
+            // already logged; previous registry stays active
+        } catch (IOException e) {
+            log.warn("Could not check selector registry {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Load the override file (or the bundled registry if none is configured) and make it active.
+     *
+     * @throws IllegalArgumentException if the file is missing or invalid; the active registry is kept
+     */
+    public synchronized SelectorRegistry reload() {
+        Path file = overrideFile();
+        try {
+            Compiled compiled;
+            if (file == null) {
+                compiled = compile(loadBundled(), "classpath:" + BUNDLED);
+            } else {
+                long modified = Files.getLastModifiedTime(file).toMillis();
+                compiled = compile(objectMapper.readValue(file.toFile(), SelectorRegistry.class), file.toString());
+                overrideModified = modified;
+            }
+            String previous = current != null ? current.registry.getVersion() : null;
+            current = compiled;
+            reloads.incrementAndGet();
+            log.info("Selector registry reloaded: {} -> {} ({})", previous, compiled.registry.getVersion(), compiled.source);
+            return compiled.registry;
+        } catch (IOException | RuntimeException e) {
+            failedReloads.incrementAndGet();
+            log.error("Rejected selector registry {}: {}", file, e.getMessage());
+            throw new IllegalArgumentException("Invalid selector registry: " + e.getMessage(), e);
+        }
+    }
+
+    private SelectorRegistry loadBundled() throws IOException {
+        try (InputStream in = new ClassPathResource(BUNDLED).getInputStream()) {
+            return objectMapper.readValue(in, SelectorRegistry.class);
+        }
+    }
+
+    private Path overrideFile() {
+        return overridePath == null || overridePath.isBlank() ? null : Paths.get(overridePath);
+    }
+
+    private Compiled compile(SelectorRegistry registry, String source) throws IOException {
+        validate(registry);
+        String registryJson = objectMapper.writeValueAsString(registry);
+        // Identifies this load in the page: a reloaded registry with the same version string still re-installs
+        String loadTag = objectMapper.writeValueAsString(
+                registry.getVersion() + "#" + Integer.toHexString(registryJson.hashCode()));
+        String probe = PROBE_FUNCTION.replace("__UI_SHOWS__", UI_SHOWS_FUNCTION);
+        String install = INSTALL_TEMPLATE.replace("__PROBE__", probe)
+                .replace("__REGISTRY__", registryJson).replace("__TAG__", loadTag);
+        return new Compiled(registry, source,
+                install + ";",
+                "([prefer, part] = []) => " + install + "(prefer, part)",
+                "([prefer, part] = []) => window.__transcriberProbeTag === " + loadTag
+                        + " ? window.__transcriberProbe(prefer, part) : null",
+                "(" + probe + ")(" + registryJson + ")",
+                STATE_TEMPLATE.replace("__UI_SHOWS__", UI_SHOWS_FUNCTION).replace("__REGISTRY__", registryJson),
+                objectMapper.writeValueAsString(registry.getConsentPhrases()));
+    }
+
+    private void validate(SelectorRegistry registry) {
+        if (registry.getVersion() == null || registry.getVersion().isBlank()) {
+            throw new IllegalArgumentException("version is required");
+        }
+        Map<String, List<String>> required = Map.of(
+                "captionUiPatterns", registry.getCaptionUiPatterns(),
+                "endedTexts", registry.getEndedTexts(),
+                "deniedTexts", registry.getDeniedTexts(),
+                "inMeetingSelectors", registry.getInMeetingSelectors(),
+                "captionsOnSelectors", registry.getCaptionsOnSelectors(),
+                "consentPhrases", registry.getConsentPhrases());
+        required.forEach((name, values) -> {
+            if (values == null || values.isEmpty()) {
+                throw new IllegalArgumentException(name + " must not be empty");
+            }
+        });
+        // The UI patterns become one page-side RegExp; catch syntax errors here, not on every tick
+        Pattern.compile(String.join("|", registry.getCaptionUiPatterns()));
+    }
+
+    public Map<String, Object> getStats() {
+        Compiled compiled = current;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("version", compiled.registry.getVersion());
+        stats.put("source", compiled.source);
+        stats.put("loadedAt", compiled.loadedAt.toString());
+        stats.put("reloads", reloads.get());
+        stats.put("failedReloads", failedReloads.get());
+        return stats;
+    }
+
+    private static class Compiled {
+        private final SelectorRegistry registry;
+        private final String source;
+        private final String probeInstallScript;
+        private final String probeScript;
+        private final String probeTickScript;
+        private final String standaloneProbeScript;
+        private final String stateProbeScript;
+        private final String consentPhrasesJs;
+        private final LocalDateTime loadedAt = LocalDateTime.now();
+
+        Compiled(SelectorRegistry registry, String source, String probeInstallScript, String probeScript,
+                 String probeTickScript, String standaloneProbeScript, String stateProbeScript,
+                 String consentPhrasesJs) {
+            this.registry = registry;
+            this.source = source;
+            this.probeInstallScript = probeInstallScript;
+            this.probeScript = probeScript;
+            this.probeTickScript = probeTickScript;
+            this.standaloneProbeScript = standaloneProbeScript;
+            this.stateProbeScript = stateProbeScript;
+            this.consentPhrasesJs = consentPhrasesJs;
+        }
+    }
+
+    // Whether Meet's own UI in this document shows any of the texts. Only visible text outside the caption pane
+    // and the chat counts, so a participant saying or typing "the meeting has ended" is not read as a state change.
+    // Walks text nodes and checks visibility only for the few that contain a phrase
+    private static final String UI_SHOWS_FUNCTION = """
+            function(doc, texts) {
+                if (!texts.length || !doc.body) return false;
+                const C = window.__transcriberCursor;
+                const pane = C && C.node && C.node.isConnected ? C.node.closest('[role="region"], [aria-live]') : null;
+                const walker = doc.createTreeWalker(doc.body, NodeFilter.SHOW_TEXT);
+                for (let n = walker.nextNode(); n; n = walker.nextNode()) {
+                    const s = n.nodeValue;
+                    if (!texts.some(t => s.includes(t))) continue;
+                    const el = n.parentElement;
+                    if (!el || (pane && pane.contains(el)) || el.closest('[data-message-text], [data-sender-name], '
+                            + '[data-self-name], [role="log"], [role="region"][aria-label*="caption" i]')) continue;
+                    if (el.checkVisibility ? el.checkVisibility() : el.getClientRects().length > 0) return true;
+                }
+                return false;
+            }""";
+
+    // Join/admission/participant state in one script (a function, so it can also be composed into waitForFunction predicates)
+    private static final String STATE_TEMPLATE = """
+            () => {
+                const R = __REGISTRY__;
+                const uiShows = __UI_SHOWS__;
+                const shown = texts => uiShows(document, texts);
+                const present = selectors => selectors.some(s => {
+                    try { return !!document.querySelector(s); } catch (e) { return false; }
+                });
+                const participants = () => {
+                    const ids = new Set();
+                    for (const s of R.participantSelectors) {
+                        try {
+                            document.querySelectorAll(s).forEach(el => ids.add(
+                                el.getAttribute('data-participant-id') || el.getAttribute('data-requested-participant-id')));
+                        } catch (e) { }
+                    }
+                    let count = ids.size;
+                    // The people control carries the count in its label or badge once the participant list is collapsed
+                    for (const s of R.participantCountSelectors) {
+                        try {
+                            const el = document.querySelector(s);
+                            const m = el && ((el.getAttribute('aria-label') || '') + ' ' + el.textContent).match(/\\d+/);
+                            if (m) count = Math.max(count, parseInt(m[0], 10));
+                        } catch (e) { }
+                    }
+                    return count;
+                };
+                return {
+                    inMeeting: present(R.inMeetingSelectors),
+                    waiting: shown(R.waitingTexts),
+                    denied: shown(R.deniedTexts),
+                    ended: shown(R.endedTexts),
+                    captionsOn: present(R.captionsOnSelectors),
+                    consent: shown(R.consentPhrases),
+                    participants: participants(),
+                    alone: shown(R.aloneTexts)
+                };
+            }
+            """;
+
+    // Pushes caption deltas on DOM changes (at most every 150 ms). Watches the whole document only until the
+    // probe has found the caption pane, then just the pane, and goes back to the document when Meet replaces it.
+    // The callback runs caption extraction only; the meeting-ended check (Meet UI text) runs on a 1 s timer in the
+    // top frame, the only frame that may report the meeting as ended, as with the polled probe
+    private static final String OBSERVER_SCRIPT = """
+            (() => {
+                if (window.__transcriberObserver) return;
+                window.__transcriberObserver = true;
+                const ready = () => typeof window.__transcriberCaption === 'function' && !!window.__transcriberProbe;
+                // The page cursor starts at seq 0 with no text: nothing to push until it has a delta
+                let lastSeq = 0;
+                let timer = null;
+                let observer = null;
+                let target = null;
+                const watch = () => {
+                    const C = window.__transcriberCursor;
+                    const node = C && C.node && C.node.isConnected ? C.node : null;
+                    const pane = node ? node.closest('[role="region"], [aria-live]') || node.parentElement || node
+                            : document.documentElement;
+                    if (!pane || pane === target) return;
+                    if (observer) observer.disconnect();
+                    target = pane;
+                    observer = new MutationObserver(() => { if (!timer) timer = setTimeout(push, 150); });
+                    observer.observe(pane, {childList: true, subtree: true, characterData: true});
+                };
+                const push = () => {
+                    timer = null;
+                    if (!ready()) return;
+                    const C = window.__transcriberCursor;
+                    let r;
+                    try { r = window.__transcriberProbe(C && C.method >= 0 ? C.method : -1, 'captions'); } catch (e) { return; }
+                    if (r.seq !== lastSeq && r.text) {
+                        window.__transcriberCaption(r);
+                    }
+                    lastSeq = r.seq;
+                    watch();
+                };
+                setInterval(() => {
+                    if (!ready()) return;
+                    if (target && !target.isConnected) {
+                        watch();
+                        push();
+                    }
+                    if (window !== window.top) return;
+                    let r;
+                    try { r = window.__transcriberProbe(-1, 'ended'); } catch (e) { return; }
+                    if (r.ended) window.__transcriberCaption(r);
+                }, 1000);
+                if (document.documentElement) watch(); else document.addEventListener('DOMContentLoaded', watch);
+            })();
+            """;
+
+    // Installs the probe for one registry load in the frame (once) and evaluates to it; compiled once per frame
+    // instead of on every tick
+    private static final String INSTALL_TEMPLATE = """
+            (() => {
+                if (window.__transcriberProbeTag !== __TAG__) {
+                    const R = __REGISTRY__;
+                    const probe = __PROBE__;
+                    window.__transcriberProbe = (prefer, part) => probe(R, prefer, part);
+                    window.__transcriberProbeTag = __TAG__;
+                }
+                return window.__transcriberProbe;
+            })()""";
+
+    // Caption extraction plus meeting-ended check in one function of the registry. Methods are tried in order;
+    // prefer >= 0 runs only that method (the one that last found captions in this frame). part 'captions' skips
+    // the ended check, 'ended' runs only that.
+    // The caption pane is a sliding window over the meeting's captions; the frame's cursor tracks where the
+    // window sits in the whole caption stream, and the result carries only what changed since the last read:
+    // text replacing the stream from offset 'at' on, numbered by 'seq' (unchanged while nothing changed)
+    private static final String PROBE_FUNCTION = """
+            function(R, prefer, part) {
+                const C = window.__transcriberCursor
+                        || (window.__transcriberCursor = {id: Math.random().toString(36).slice(2), seq: 0, base: 0, last: ''});
+                let result = {ended: false, method: -1, cursor: C.id, seq: C.seq, at: 0, speaker: '', text: '', debug: ''};
+                // el: the caption element, kept on the cursor so the caption observer can watch its pane
+                function setResult(s, t, d, el) {
+                    result.speaker = s || 'Unknown';
+                    result.text = t || '';
+                    result.debug = d || '';
+                    C.node = result.text ? el : null;
+                    return result.text.length > 0;
+                }
+                let doc = document;
+
+                // Meeting ended / removed: answered on the same tick, no caption needed then
+                if (part !== 'captions') {
+                    if ((__UI_SHOWS__)(doc, R.endedTexts)) {
+                        result.ended = true;
+                        return result;
+                    }
+                    if (part === 'ended') return result;
+                }
+
+                // UI/accessibility text patterns to SKIP (not real captions)
+                const uiPatterns = new RegExp(R.captionUiPatterns.join('|'), 'i');
+
+                function isUIText(text) {
+                    return uiPatterns.test(text);
+                }
+
+                const methods = [
+                    // Method 1: data-message-text attribute (MOST RELIABLE for actual caption text)
+                    () => {
+                        let msgTextEls = doc.querySelectorAll('[data-message-text]');
+                        result.debug += 'data-message-text:' + msgTextEls.length + '; ';
+                        for (let el of msgTextEls) {
+                            let text = el.getAttribute('data-message-text') || (el.innerText || '').trim();
+                            if (text.length > 1 && text.length < 800 && !isUIText(text)) {
+                                // Find speaker from parent
+                                let speaker = 'Unknown';
+                                let parent = el.closest('[data-sender-name]') || el.closest('[data-self-name]');
+                                if (parent) {
+                                    speaker = parent.getAttribute('data-sender-name') || parent.getAttribute('data-self-name') || 'Unknown';
+                                }
+                                return setResult(speaker, text, 'data-message-text', el);
+                            }
+                        }
+                        return false;
+                    },
+
+                    // Method 2: data-sender-name containers
+                    () => {
+                        let senderContainers = doc.querySelectorAll('[data-sender-name], [data-self-name]');
+                        result.debug += 'sender-containers:' + senderContainers.length + '; ';
+                        for (let c of senderContainers) {
+                            let name = c.getAttribute('data-sender-name') || c.getAttribute('data-self-name') || '';
+                            let textEl = c.querySelector('[data-message-text]') || c;
+                            let text = textEl.getAttribute('data-message-text') || (textEl.innerText || '').trim();
+                            if (text.length > 1 && text.length < 800 && !isUIText(text)) {
+                                return setResult(name || 'Unknown', text, 'sender-container', c);
+                            }
+                        }
+                        return false;
+                    },
+
+                    // Method 3: Known Google Meet caption classes (specific to caption display)
+                    () => {
+                        let meetClasses = doc.querySelectorAll('.iTTPOb, .TBMuR, .iOzk7, .a4cQT, .zs7s8d, .CNusmb, .Mz6pEf, .NWpY1c');
+                        result.debug += 'meet-classes:' + meetClasses.length + '; ';
+                        for (let el of meetClasses) {
+                            let text = (el.innerText || '').trim();
+                            if (text.length > 2 && text.length < 800 && !isUIText(text)) {
+                                return setResult('Unknown', text, 'meet-class', el);
+                            }
+                        }
+                        return false;
+                    },
+
+                    // Method 4: Caption/subtitle divs (class name contains caption/subtitle)
+                    () => {
+                        let captionDivs = doc.querySelectorAll('div[class*="caption" i], div[class*="subtitle" i], span[class*="caption" i]');
+                        result.debug += 'caption-divs:' + captionDivs.length + '; ';
+                        for (let el of captionDivs) {
+                            let text = (el.innerText || '').trim();
+                            if (text.length < 2 || text.length > 800 || isUIText(text)) continue;
+                            let speaker = 'Unknown';
+                            let parent = el.closest('[class*="caption"]');
+                            if (parent) {
+                                let nameEl = parent.querySelector('[class*="name"]');
+                                if (nameEl) speaker = (nameEl.textContent || '').trim();
+                            }
+                            return setResult(speaker, text, 'caption-div', el);
+                        }
+                        return false;
+                    },
+
+                    // Method 5: aria-live regions (filter out UI text)
+                    () => {
+                        let liveEls = doc.querySelectorAll('[aria-live="polite"], [aria-live="assertive"]');
+                        result.debug += 'aria-live:' + liveEls.length + '; ';
+                        for (let el of liveEls) {
+                            let raw = (el.innerText || '').trim();
+                            if (raw.length < 2 || raw.length > 800 || isUIText(raw)) continue;
+                            let lines = raw.split(/[\\n\\r]+/).map(l => l.trim()).filter(l => l.length > 0 && !isUIText(l));
+                            if (lines.length >= 2) {
+                                let first = lines[0], rest = lines.slice(1).join(' ').trim();
+                                if (first.length < 60 && rest.length > 1 && !isUIText(rest)) {
+                                    return setResult(first, rest, 'aria-live', el);
+                                }
+                            }
+                            if (lines.length === 1 && lines[0].length > 2 && !isUIText(lines[0])) {
+                                return setResult('Unknown', lines[0], 'aria-live-single', el);
+                            }
+                        }
+                        return false;
+                    },
+
+                    // Method 6: role=region - but ONLY if text doesn't match UI patterns
+                    () => {
+                        let regions = Array.from(doc.querySelectorAll('[role="region"]'));
+                        result.debug += 'regions:' + regions.length + '; ';
+                        for (let region of regions) {
+                            let raw = (region.innerText || '').trim();
+                            if (!raw || raw.length < 2 || raw.length > 800 || isUIText(raw)) continue;
+                            let lines = raw.split(/[\\n\\r]+/).map(l => l.trim()).filter(l => l.length > 0 && !isUIText(l));
+                            if (lines.length >= 2) {
+                                let first = lines[0], rest = lines.slice(1).join(' ').trim();
+                                if (first.length < 60 && rest.length > 1 && !isUIText(rest)) {
+                                    return setResult(first, rest, 'region', region);
+                                }
+                            }
+                            // Single valid line
+                            if (lines.length === 1 && lines[0].length > 2) {
+                                return setResult('Unknown', lines[0], 'region-single', region);
+                            }
+                        }
+                        return false;
+                    }
+                ];
+
+                C.node = null;
+                const order = prefer >= 0 && prefer < methods.length ? [prefer] : methods.keys();
+                for (const i of order) {
+                    if (methods[i]()) {
+                        result.method = i;
+                        break;
+                    }
+                }
+                C.method = result.method;
+
+                // Window -> delta against the previous window of this frame
+                const full = result.text;
+                result.text = '';
+                if (full && full !== C.last) {
+                    // Where the new window starts in the previous one (it scrolls up as captions are added)
+                    let d = full.startsWith(C.last) ? 0 : C.last.indexOf(full.slice(0, 24));
+                    if (d >= 0) {
+                        const prev = C.last.slice(d);
+                        let p = 0;
+                        while (p < prev.length && p < full.length && prev[p] === full[p]) p++;
+                        C.base += d;
+                        result.at = C.base + p;
+                        result.text = full.slice(p);
+                    } else {
+                        // Nothing in common: a new block after everything read so far
+                        const sep = C.last ? '\\n' : '';
+                        result.at = C.base + C.last.length;
+                        result.text = sep + full;
+                        C.base = result.at + sep.length;
+                    }
+                    C.last = full;
+                    result.seq = ++C.seq;
+                }
+                return result;
+            }
+            """;
+}
@@ -0,0 +1,145 @@
+package com.transcriber.service;
+
+import com.microsoft.playwright.BrowserContext;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cookies and local storage captured after a successful join, stored under
+ * playwright.user-data-dir and used to seed new meeting contexts, so joins skip the
+ * first-run and consent UI a cold profile sees. Snapshots are kept per host, expire
+ * after a TTL and are dropped when a join seeded from them ends on a sign-in page or
+ * consent wall.
+ */
+@Slf4j
+@Service
+public class StorageStateCache {
+
+    @Value("${playwright.user-data-dir:/tmp/playwright-data}")
+    private String userDataDir;
+
+    @Value("${playwright.storage-state.enabled:true}")
+    private boolean enabled;
+
+    @Value("${playwright.storage-state.ttl-hours:24}")
+    private int ttlHours;
+
+    private Path stateDir;
+    private final AtomicLong seeded = new AtomicLong();
+    private final AtomicLong snapshots = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        stateDir = Paths.get(userDataDir, "storage-state");
+        try {
+            Files.createDirectories(stateDir);
+        } catch (IOException e) {
+            log.error("Failed to create storage state directory {}: {}", stateDir, e.getMessage());
+        }
+    }
+
+    /**
+     * Snapshot to seed a new context for this meeting URL, or null if none is fresh.
+     */
+    public Path lookup(String meetUrl) {
+        if (!enabled) {
+            return null;
+        }
+        Path file = fileFor(meetUrl);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        if (isExpired(file)) {
+            log.info("Storage state {} expired (TTL {}h), discarding", file.getFileName(), ttlHours);
+            delete(file);
+            return null;
+        }
+        seeded.incrementAndGet();
+        return file;
+    }
+
+    /**
+     * Save the context's cookies and local storage unless a fresh snapshot already exists.
+     */
+    public void snapshot(String uuid, String meetUrl, BrowserContext context) {
+        if (!enabled) {
+            return;
+        }
+        Path file = fileFor(meetUrl);
+        if (Files.exists(file) && !isExpired(file)) {
+            return;
+        }
+        try {
+            Path tmp = file.resolveSibling(file.getFileName() + "." + uuid + ".tmp");
+            context.storageState(new BrowserContext.StorageStateOptions().setPath(tmp));
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            snapshots.incrementAndGet();
+            log.info("[{}] Saved storage state snapshot: {}", uuid, file.getFileName());
+        } catch (Exception e) {
+            log.warn("[{}] Could not save storage state: {}", uuid, e.getMessage());
+        }
+    }
+
+    /**
+     * Drop the snapshot for this meeting URL, e.g. after a seeded join ran into a sign-in page.
+     */
+    public void invalidate(String uuid, String meetUrl) {
+        Path file = fileFor(meetUrl);
+        if (Files.exists(file)) {
+            delete(file);
+            invalidations.incrementAndGet();
+            log.info("[{}] Invalidated storage state snapshot: {}", uuid, file.getFileName());
+        }
+    }
+
+    private boolean isExpired(Path file) {
+        try {
+            Instant modified = Files.getLastModifiedTime(file).toInstant();
+            return modified.plus(Duration.ofHours(ttlHours)).isBefore(Instant.now());
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    private Path fileFor(String meetUrl) {
+        String host;
+        try {
+            host = URI.create(meetUrl).getHost();
+        } catch (Exception e) {
+            host = null;
+        }
+        return stateDir.resolve((host != null ? host : "default") + ".json");
+    }
+
+    private void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Could not delete storage state {}: {}", file, e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("seededContexts", seeded.get());
+        stats.put("snapshots", snapshots.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+}
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.opencsv.CSVWriter;
 import com.transcriber.model.MeetingSession;
+import com.transcriber.model.CaptionSpan;
 import com.transcriber.model.TranscriptEntry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -108,6 +109,7 @@ public class TranscriptService {
                 entryMap.put("speaker", entry.getSpeaker());
                 entryMap.put("text", entry.getText());
                 entryMap.put("wordCount", entry.getText() != null ? entry.getText().split("\\s+").length : 0);
+                entryMap.put("captions", entry.getCaptions());
                 transcriptList.add(entryMap);
             }
             document.put("transcript", transcriptList);
@@ -253,6 +255,8 @@ public class TranscriptService {
         List<TranscriptEntry> merged = new ArrayList<>();
         TranscriptEntry current = entries.get(0);
         StringBuilder textBuilder = new StringBuilder(current.getText() != null ? current.getText() : "");
+        List<CaptionSpan> captions = new ArrayList<>();
+        addCaptions(captions, current);
 
         for (int i = 1; i < entries.size(); i++) {
             TranscriptEntry next = entries.get(i);
@@ -264,16 +268,20 @@ public class TranscriptService {
                 if (next.getText() != null && !next.getText().isEmpty()) {
                     textBuilder.append(" ").append(next.getText());
                 }
+                addCaptions(captions, next);
             } else {
                 // Different speaker - save current and start new
                 merged.add(TranscriptEntry.builder()
                         .speaker(current.getSpeaker())
                         .text(textBuilder.toString().trim())
                         .timestamp(current.getTimestamp())
+                        .captions(captions.isEmpty() ? null : captions)
                         .build());
                 
                 current = next;
                 textBuilder = new StringBuilder(current.getText() != null ? current.getText() : "");
+                captions = new ArrayList<>();
+                addCaptions(captions, current);
             }
         }
         
@@ -282,11 +290,35 @@ public class TranscriptService {
                 .speaker(current.getSpeaker())
                 .text(textBuilder.toString().trim())
                 .timestamp(current.getTimestamp())
+                .captions(captions.isEmpty() ? null : captions)
                 .build());
 
         return merged;
     }
 
+    /**
+     * Append an entry's caption spans, joining a span that continues the previous one (same cursor and run).
+     */
+    private void addCaptions(List<CaptionSpan> captions, TranscriptEntry entry) {
+        if (entry.getCaptions() == null) {
+            return;
+        }
+        for (CaptionSpan span : entry.getCaptions()) {
+            CaptionSpan last = captions.isEmpty() ? null : captions.get(captions.size() - 1);
+            if (last != null && last.getCursor().equals(span.getCursor()) && last.getRun() == span.getRun()) {
+                List<String> sources = new ArrayList<>(last.getSources());
+                span.getSources().stream().filter(source -> !sources.contains(source)).forEach(sources::add);
+                captions.set(captions.size() - 1, last.toBuilder()
+                        .lastSeq(span.getLastSeq())
+                        .lastArrival(span.getLastArrival())
+                        .sources(sources)
+                        .build());
+            } else {
+                captions.add(span);
+            }
+        }
+    }
+
     /**
      * Get unique participants from transcript entries
      */
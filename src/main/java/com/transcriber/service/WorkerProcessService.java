@@ -0,0 +1,319 @@
+package com.transcriber.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transcriber.MeetTranscriberApplication;
+import com.transcriber.model.CaptionEvent;
+import com.transcriber.model.MeetingSession;
+import com.transcriber.model.WorkerMessage;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs meetings in child worker JVMs when meeting.worker-mode=process. Each worker runs
+ * the normal in-process join/capture flow (see MeetingWorkerRunner) and streams status,
+ * captions and metrics back over a loopback socket as JSON lines. A stuck browser or a
+ * GC pause then only affects its own meeting, and heap can be capped per worker. Caption
+ * events arrive as they are captured, so a worker that dies mid-run still leaves its transcript.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WorkerProcessService {
+
+    private final ObjectMapper objectMapper;
+    private final ProcessRegistry processRegistry;
+    private final PlaywrightService playwrightService;
+
+    @Value("${meeting.worker-mode:in-process}")
+    private String workerMode;
+
+    @Value("${meeting.worker.max-heap:384m}")
+    private String maxHeap;
+
+    @Value("${meeting.worker.startup-timeout-seconds:60}")
+    private int startupTimeoutSeconds;
+
+    // Kill a worker that is still running this long after the meeting's end time
+    @Value("${meeting.worker.end-grace-seconds:300}")
+    private int endGraceSeconds;
+
+    private final ConcurrentHashMap<String, Worker> workers = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return "process".equalsIgnoreCase(workerMode);
+    }
+
+    /**
+     * Run the meeting in a worker process and block until it finishes, mirroring
+     * PlaywrightService.joinMeetingAndCapture: the session's status, transcripts and
+     * metrics are updated as the worker reports them.
+     */
+    public void runMeeting(MeetingSession session) throws IOException, InterruptedException {
+        String uuid = session.getUuid();
+        String token = UUID.randomUUID().toString();
+
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout(startupTimeoutSeconds * 1000);
+
+            ProcessBuilder builder = new ProcessBuilder(buildCommand(server.getLocalPort())).inheritIO();
+            builder.environment().put("MEETING_WORKER_TOKEN", token);
+            Process process;
+            synchronized (ProcessRegistry.SPAWN_LOCK) {
+                process = builder.start();
+            }
+            log.info("[{}] Started worker process pid {} (max heap {})", uuid, process.pid(), maxHeap);
+            processRegistry.registerRoot(process.toHandle(), "worker:" + uuid);
+            processRegistry.registerMeetingProcess(uuid, process.toHandle(), "worker");
+
+            Worker worker = new Worker(process);
+            workers.put(uuid, worker);
+            // Cancelled before the worker could be signalled: stop it as soon as it has started
+            worker.stopRequested = session.getStatus() == MeetingSession.MeetingStatus.CANCELLED;
+            try (Socket socket = server.accept()) {
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                worker.out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+
+                WorkerMessage hello = read(in);
+                if (hello == null || !WorkerMessage.HELLO.equals(hello.getType()) || !token.equals(hello.getToken())) {
+                    throw new IOException("Worker process did not identify itself correctly");
+                }
+                send(worker, WorkerMessage.builder()
+                        .type(WorkerMessage.START)
+                        .uuid(uuid)
+                        .meetUrl(session.getMeetUrl())
+                        .startTime(session.getStartTime().toString())
+                        .endTime(session.getEndTime().toString())
+                        .callbackUrl(session.getCallbackUrl())
+                        .build());
+                if (worker.stopRequested) {
+                    send(worker, WorkerMessage.builder().type(WorkerMessage.STOP).build());
+                }
+
+                try {
+                    superviseUntilDone(session, worker, socket, in);
+                } finally {
+                    saveUnparsedCaptions(session, worker);
+                }
+            } catch (SocketTimeoutException e) {
+                throw new IOException("Worker process did not connect within " + startupTimeoutSeconds + " seconds");
+            } finally {
+                workers.remove(uuid);
+                if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                    log.warn("[{}] Worker process pid {} did not exit, killing it", uuid, process.pid());
+                    process.destroyForcibly();
+                }
+                processRegistry.unregisterRoot(process.pid(), "worker:" + uuid);
+                processRegistry.meetingFinished(uuid);
+            }
+        }
+    }
+
+    private void superviseUntilDone(MeetingSession session, Worker worker, Socket socket, BufferedReader in)
+            throws IOException, InterruptedException {
+        String uuid = session.getUuid();
+        ZonedDateTime deadline = session.getEndTime().plusSeconds(endGraceSeconds);
+        socket.setSoTimeout(5000);
+
+        while (true) {
+            WorkerMessage message;
+            try {
+                message = read(in);
+            } catch (SocketTimeoutException e) {
+                if (ZonedDateTime.now().isAfter(deadline)) {
+                    worker.process.destroyForcibly();
+                    throw new IOException("Worker process still running " + endGraceSeconds + " seconds after meeting end, killed");
+                }
+                continue;
+            }
+
+            if (message == null) {
+                int exitCode = worker.process.waitFor(5, TimeUnit.SECONDS) ? worker.process.exitValue() : -1;
+                throw new IOException("Worker process exited unexpectedly (exit code " + exitCode + ")");
+            }
+
+            apply(session, worker, message);
+            if (WorkerMessage.DONE.equals(message.getType())) {
+                // Every run's entries came with the final report
+                worker.streams.clear();
+                log.info("[{}] Worker process finished with status {}", uuid, message.getStatus());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Save the captions of runs the worker streamed but did not get to turn into entries (it died or was killed).
+     */
+    private void saveUnparsedCaptions(MeetingSession session, Worker worker) {
+        worker.streams.forEach((run, stream) -> {
+            if (stream.length() > 0) {
+                log.warn("[{}] Worker ended before saving capture run {}, keeping its {} streamed caption chars",
+                        session.getUuid(), run, stream.length());
+                playwrightService.parseAndSaveTranscripts(session, stream, session.getUuid());
+            }
+        });
+        worker.streams.clear();
+    }
+
+    private void apply(MeetingSession session, Worker worker, WorkerMessage message) {
+        if (message.getEvents() != null) {
+            long receivedNanos = System.nanoTime();
+            for (CaptionEvent event : message.getEvents()) {
+                // Arrival on the worker's clock -> same age on ours
+                event.setArrivalNanos(receivedNanos - (message.getSentNanos() - event.getArrivalNanos()));
+                CaptionStream stream = worker.streams.computeIfAbsent(event.getRun(), k -> new CaptionStream());
+                if (event.isDelta()) {
+                    stream.apply(event);
+                } else {
+                    stream.applyWindow(event);
+                }
+            }
+        }
+        if (message.getCaptionRun() != null) {
+            worker.streams.headMap(message.getCaptionRun()).clear();
+        }
+        // Cancelled and rejected are decided here, not by the worker; its report does not undo them
+        if (message.getStatus() != null && session.getStatus() != MeetingSession.MeetingStatus.CANCELLED
+                && session.getStatus() != MeetingSession.MeetingStatus.REJECTED) {
+            session.setStatus(MeetingSession.MeetingStatus.valueOf(message.getStatus()));
+        }
+        if (message.getEntries() != null) {
+            message.getEntries().forEach(session::addTranscript);
+        }
+        if (message.getParsedRun() != null) {
+            // The run's entries are all in; re-parsing its events would add them twice
+            worker.streams.headMap(message.getParsedRun(), true).clear();
+        }
+        if (message.getMetrics() != null) {
+            session.setMetrics(message.getMetrics());
+        }
+        if (message.getGaps() != null) {
+            session.setGaps(new CopyOnWriteArrayList<>(message.getGaps()));
+        }
+        if (message.getResourceSamples() != null) {
+            session.setResourceSamples(new CopyOnWriteArrayList<>(message.getResourceSamples()));
+        }
+        if (message.getErrorMessage() != null) {
+            session.setErrorMessage(message.getErrorMessage());
+        }
+        if (message.getEndReason() != null) {
+            session.setEndReason(MeetingSession.EndReason.valueOf(message.getEndReason()));
+        }
+    }
+
+    /**
+     * Ask the worker running this meeting to stop capturing (same as PlaywrightService.stopCapturing).
+     */
+    public void stop(String uuid) {
+        Worker worker = workers.get(uuid);
+        if (worker == null) {
+            return;
+        }
+        worker.stopRequested = true;
+        if (worker.out != null) {
+            send(worker, WorkerMessage.builder().type(WorkerMessage.STOP).build());
+            log.info("[{}] Stop signal sent to worker process", uuid);
+        }
+    }
+
+    private List<String> buildCommand(int port) {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Xmx" + maxHeap);
+
+        // Start the worker the same way this JVM was started: from the packaged jar or the class path
+        String jar = launchJar();
+        if (jar != null) {
+            command.add("-jar");
+            command.add(jar);
+        } else {
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(MeetTranscriberApplication.class.getName());
+        }
+
+        command.add("--spring.main.web-application-type=none");
+        command.add("--meeting.worker-mode=in-process");
+        command.add("--meeting.worker.child=true");
+        command.add("--meeting.worker.port=" + port);
+        return command;
+    }
+
+    /**
+     * The jar this JVM was started with (java -jar), null if it was started from a class path. Read from the
+     * JVM's own arguments, so a jar path with spaces or JVM options before -jar are handled.
+     */
+    private static String launchJar() {
+        List<String> arguments = ProcessHandle.current().info().arguments().map(List::of).orElse(List.of());
+        int jarFlag = arguments.indexOf("-jar");
+        return jarFlag >= 0 && jarFlag + 1 < arguments.size() ? arguments.get(jarFlag + 1) : null;
+    }
+
+    private WorkerMessage read(BufferedReader in) throws IOException {
+        String line = in.readLine();
+        return line != null ? objectMapper.readValue(line, WorkerMessage.class) : null;
+    }
+
+    private void send(Worker worker, WorkerMessage message) {
+        try {
+            String line = objectMapper.writeValueAsString(message);
+            synchronized (worker) {
+                worker.out.println(line);
+            }
+        } catch (IOException e) {
+            log.warn("Could not send {} to worker process: {}", message.getType(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        workers.forEach((uuid, worker) -> {
+            log.info("[{}] Stopping worker process pid {}", uuid, worker.process.pid());
+            worker.process.destroy();
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("mode", isEnabled() ? "process" : "in-process");
+        stats.put("runningWorkers", workers.size());
+        stats.put("maxHeapPerWorker", maxHeap);
+        return stats;
+    }
+
+    private static class Worker {
+        private final Process process;
+        private volatile PrintWriter out;
+        private volatile boolean stopRequested;
+        // Caption stream per capture run whose entries have not arrived yet (supervising thread only)
+        private final TreeMap<Integer, CaptionStream> streams = new TreeMap<>();
+
+        Worker(Process process) {
+            this.process = process;
+        }
+    }
+}
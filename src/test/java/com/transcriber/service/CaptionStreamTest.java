@@ -0,0 +1,102 @@
+package com.transcriber.service;
+
+import com.transcriber.model.CaptionEvent;
+import com.transcriber.model.CaptionSpan;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CaptionStreamTest {
+
+    private static CaptionEvent delta(String cursor, long seq, int at, String text) {
+        return CaptionEvent.builder()
+                .cursor(cursor)
+                .seq(seq)
+                .at(at)
+                .text(text)
+                .source("poll:" + cursor)
+                .arrivalNanos(System.nanoTime())
+                .build();
+    }
+
+    private static CaptionEvent window(String text) {
+        return CaptionEvent.builder().text(text).source("locator").arrivalNanos(System.nanoTime()).build();
+    }
+
+    @Test
+    void appendsAndRevisesInPlace() {
+        CaptionStream stream = new CaptionStream();
+        assertThat(stream.apply(delta("main", 1, 0, "hello wor"))).isTrue();
+        assertThat(stream.apply(delta("main", 2, 6, "world, how are yu"))).isTrue();
+        assertThat(stream.apply(delta("main", 3, 21, "you"))).isTrue();
+
+        assertThat(stream.getText()).isEqualTo("hello world, how are you");
+        assertThat(stream.length()).isEqualTo(stream.getText().length());
+        assertThat(stream.getDeltas()).isEqualTo(3);
+    }
+
+    @Test
+    void ignoresStaleAndRepeatedDeltas() {
+        CaptionStream stream = new CaptionStream();
+        stream.apply(delta("main", 2, 0, "hello"));
+
+        assertThat(stream.apply(delta("main", 2, 0, "hello"))).isFalse();
+        assertThat(stream.apply(delta("main", 1, 0, "older"))).isFalse();
+        assertThat(stream.getText()).isEqualTo("hello");
+    }
+
+    @Test
+    void emptyOrStaleEventsFromAnotherCursorDoNotMoveTheStream() {
+        CaptionStream stream = new CaptionStream();
+        stream.apply(delta("main", 1, 0, "hello wor"));
+
+        assertThat(stream.apply(delta("iframe", 0, 0, ""))).isFalse();
+        assertThat(stream.apply(delta("main", 2, 6, "world"))).isTrue();
+
+        assertThat(stream.getText()).isEqualTo("hello world");
+    }
+
+    @Test
+    void keepsEachCursorsTextAndSequenceApart() {
+        CaptionStream stream = new CaptionStream();
+        stream.apply(delta("main", 1, 0, "first block"));
+        stream.apply(delta("iframe", 1, 0, "second"));
+        // The main cursor continues at its own offsets and sequence after the iframe cursor spoke
+        stream.apply(delta("main", 2, 11, " grows"));
+        stream.apply(delta("iframe", 2, 6, " block"));
+
+        assertThat(stream.getText()).isEqualTo("first block grows\nsecond block");
+        assertThat(stream.length()).isEqualTo(stream.getText().length());
+    }
+
+    @Test
+    void turnsWindowsIntoDeltas() {
+        CaptionStream stream = new CaptionStream();
+        assertThat(stream.applyWindow(window("Alice\nhello the"))).isTrue();
+        assertThat(stream.applyWindow(window("Alice\nhello there"))).isTrue();
+        assertThat(stream.applyWindow(window("Alice\nhello there"))).isFalse();
+
+        assertThat(stream.getText()).isEqualTo("Alice\nhello there");
+    }
+
+    @Test
+    void spansNameTheCursorsBehindARange() {
+        CaptionStream stream = new CaptionStream();
+        stream.apply(delta("main", 1, 0, "one "));
+        stream.apply(delta("main", 2, 4, "two"));
+        stream.apply(delta("iframe", 5, 0, "three"));
+
+        List<CaptionSpan> all = stream.spans(0, stream.length());
+        assertThat(all).extracting(CaptionSpan::getCursor).containsExactly("main", "iframe");
+        assertThat(all.get(0).getFirstSeq()).isEqualTo(1);
+        assertThat(all.get(0).getLastSeq()).isEqualTo(2);
+        assertThat(all.get(0).getSources()).containsExactly("poll:main");
+        assertThat(all.get(1).getFirstSeq()).isEqualTo(5);
+
+        // "two" only
+        assertThat(stream.spans(4, 7)).singleElement()
+                .satisfies(span -> assertThat(span.getFirstSeq()).isEqualTo(2));
+    }
+}